@@ -0,0 +1,80 @@
+package com.capstone.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing at login and registration (both carry the customer ID), and verifying a token for /me,
+ * per signing algorithm: HMAC with a 32-byte (HS256) and a 64-byte (HS512) secret, RSA 2048 (RS256)
+ * and Ed25519 (EdDSA). The asymmetric keys go through a key directory like in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenServiceBenchmark {
+
+    private static final String SECRET_256 = "benchmark-secret-0123456789abcdef";
+    private static final String SECRET_512 = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789abcd";
+
+    @Param({"HS256", "HS512", "RS256", "EdDSA"})
+    public String algorithm;
+
+    private JwtTokenService jwtTokenService;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        String secret = "HS256".equals(algorithm) ? SECRET_256 : SECRET_512;
+        String keyDir = "";
+        String active = "";
+        if (algorithm.equals("RS256") || algorithm.equals("EdDSA")) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.equals("RS256") ? "RSA" : "Ed25519");
+            if (algorithm.equals("RS256")) {
+                generator.initialize(2048);
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            Path dir = Files.createTempDirectory("jwt-keys");
+            dir.toFile().deleteOnExit();
+            writePem(dir.resolve("bench-private.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+            writePem(dir.resolve("bench-public.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+            keyDir = dir.toString();
+            active = "bench";
+        }
+        JwtKeyRing keyRing = new JwtKeyRing(secret, "default", keyDir, active, Duration.ofHours(1));
+        jwtTokenService = new JwtTokenService(keyRing, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtTokenService, "jwtExpirationMs", 3_600_000);
+        token = generateLoginToken();
+    }
+
+    @Benchmark
+    public String generateLoginToken() {
+        return jwtTokenService.generateToken("alice", "alice@example.com", "650000000000000000000001");
+    }
+
+    @Benchmark
+    public Object verifyForMe() {
+        return jwtTokenService.getVerifiedClaims(token);
+    }
+
+    private static void writePem(Path file, String type, byte[] der) throws Exception {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der);
+        Files.writeString(file, "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n");
+        file.toFile().deleteOnExit();
+    }
+}
@@ -3,7 +3,8 @@ package com.capstone.account;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// com.capstone.common holds the beans compiled in from ../common
+@SpringBootApplication(scanBasePackages = {"com.capstone.account", "com.capstone.common"})
 public class AccountServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,136 @@
+package com.capstone.account.config;
+
+import com.capstone.account.service.DataServiceDeadline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * HTTP client for the account -> data service hop: persistent, pooled connections with connect,
+ * pool-acquire and response timeouts, so a slow data service can no longer hold account-service
+ * threads indefinitely. Set data.service.http.version=HTTP_2 to use the JDK client over HTTP/2 instead.
+ * Either way an attempt's read timeout is cut to what is left of its call's deadline (DataServiceDeadline).
+ */
+@Configuration
+public class DataServiceClientConfig {
+
+    @Value("${data.service.connect-timeout:1s}")
+    private Duration connectTimeout;
+
+    @Value("${data.service.read-timeout:2s}")
+    private Duration readTimeout;
+
+    @Value("${data.service.pool.acquire-timeout:500ms}")
+    private Duration acquireTimeout;
+
+    // Shared secret the data service requires for the email lookup and password hash updates
+    @Value("${data.service.key:}")
+    private String serviceKey;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "data.service.http.version", havingValue = "HTTP_1_1", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager dataServiceConnectionManager(
+            @Value("${data.service.pool.max-total:100}") int maxTotal,
+            @Value("${data.service.pool.max-per-route:100}") int maxPerRoute,
+            @Value("${data.service.pool.time-to-live:5m}") Duration timeToLive,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .build())
+                .build();
+
+        registerPoolGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, connectionManager, "max", PoolStats::getMax);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "data.service.http.version", havingValue = "HTTP_1_1", matchIfMissing = true)
+    public CloseableHttpClient dataServiceHttpClient(PoolingHttpClientConnectionManager dataServiceConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(dataServiceConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                // Retries are done by DataServiceClient, and only for idempotent calls
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate dataServiceRestTemplate(RestTemplateBuilder builder,
+                                                ObjectProvider<CloseableHttpClient> dataServiceHttpClient) {
+        if (!serviceKey.isBlank()) {
+            builder = builder.defaultHeader("X-Service-Key", serviceKey);
+        }
+        CloseableHttpClient pooledClient = dataServiceHttpClient.getIfAvailable();
+        if (pooledClient != null) {
+            return builder.requestFactory(() -> {
+                HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(pooledClient);
+                requestFactory.setHttpContextFactory((method, uri) -> {
+                    HttpClientContext context = HttpClientContext.create();
+                    context.setRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                            .setResponseTimeout(Timeout.of(DataServiceDeadline.timeout(readTimeout)))
+                            .build());
+                    return context;
+                });
+                return requestFactory;
+            }).build();
+        }
+
+        // HTTP/2: the JDK client multiplexes all calls over one connection per host (h2c upgrade on plain http)
+        HttpClient http2Client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        ClientHttpRequestFactory requestFactory = (uri, method) -> {
+            // The factory only holds the timeout; the client and its connections are shared
+            JdkClientHttpRequestFactory attempt = new JdkClientHttpRequestFactory(http2Client);
+            attempt.setReadTimeout(DataServiceDeadline.timeout(readTimeout));
+            return attempt.createRequest(uri, method);
+        };
+        return builder.requestFactory(() -> requestFactory).build();
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager connectionManager,
+                                          String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("data.service.pool.connections", connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .description("Data Service HTTP connection pool")
+                .register(meterRegistry);
+    }
+}
@@ -5,9 +5,13 @@ import com.capstone.account.dto.JwtResponse;
 import com.capstone.account.dto.LoginRequest;
 import com.capstone.account.model.Customer;
 import com.capstone.account.service.AccountService;
+import com.capstone.account.service.DataServiceUnavailableException;
+import com.capstone.account.service.PasswordHashingOverloadedException;
 import com.capstone.account.service.JwtTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -40,6 +44,10 @@ public class AccountController {
         try {
             JwtResponse jwtResponse = accountService.authenticateCustomer(loginRequest);
             return ResponseEntity.ok(jwtResponse);
+        } catch (PasswordHashingOverloadedException e) {
+            return tooManyRequests(e);
+        } catch (DataServiceUnavailableException e) {
+            return serviceUnavailable(e);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Authentication failed");
@@ -54,6 +62,10 @@ public class AccountController {
         try {
             JwtResponse jwtResponse = accountService.registerCustomer(registrationRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(jwtResponse);
+        } catch (PasswordHashingOverloadedException e) {
+            return tooManyRequests(e);
+        } catch (DataServiceUnavailableException e) {
+            return serviceUnavailable(e);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Registration failed");
@@ -63,6 +75,21 @@ public class AccountController {
     }
     
 
+    private ResponseEntity<Map<String, String>> tooManyRequests(PasswordHashingOverloadedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many requests");
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+    
+    private ResponseEntity<Map<String, String>> serviceUnavailable(DataServiceUnavailableException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Service temporarily unavailable");
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(error);
+    }
+    
+
     @ExceptionHandler(org.springframework.web.bind.MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
             org.springframework.web.bind.MethodArgumentNotValidException ex) {
@@ -75,31 +102,36 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
     
+    /**
+     * The current user, straight from the verified token claims: no Data Service call
+     */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
-        try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "No valid authorization header"));
-            }
-            
-            String token = authHeader.substring(7); // Remove "Bearer " prefix
-            
-            if (!jwtTokenService.validateToken(token)) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token"));
+    public ResponseEntity<?> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "No valid authorization header"));
+        }
+        
+        Claims claims = jwtTokenService.getVerifiedClaims(authHeader.substring(7)); // Remove "Bearer " prefix
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token"));
+        }
+        
+        String email = claims.get("email", String.class);
+        String customerId = claims.get("customerId", String.class);
+        if (customerId == null) {
+            // Registration tokens issued before they carried the ID; gone once those have expired
+            try {
+                Customer customer = accountService.findCustomerByEmail(email);
+                customerId = customer == null ? null : customer.getId();
+            } catch (RuntimeException e) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Failed to get user info"));
             }
-            
-            String email = jwtTokenService.getEmailFromToken(token);
-            
-            // Get customer info by email since registration tokens don't have customer ID
-            Customer customer = accountService.findCustomerByEmail(email);
-            
-            Map<String, String> userInfo = new HashMap<>();
-            userInfo.put("email", email);
-            userInfo.put("customerId", customer.getId());
-            
-            return ResponseEntity.ok(userInfo);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Failed to get user info"));
         }
+        
+        Map<String, String> userInfo = new HashMap<>();
+        userInfo.put("email", email);
+        userInfo.put("customerId", customerId);
+        
+        return ResponseEntity.ok(userInfo);
     }
 }
@@ -4,13 +4,16 @@ import com.capstone.account.dto.CustomerRegistrationRequest;
 import com.capstone.account.dto.JwtResponse;
 import com.capstone.account.dto.LoginRequest;
 import com.capstone.account.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AccountService {
     
+    private static final Logger log = LoggerFactory.getLogger(AccountService.class);
+    
     @Autowired
     private DataServiceClient dataServiceClient;
     
@@ -18,23 +21,23 @@ public class AccountService {
     private JwtTokenService jwtTokenService;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     /**
      * Register a new customer and return JWT token
      */
     public JwtResponse registerCustomer(CustomerRegistrationRequest request) {
-        // Create new customer with encoded password (skip duplicate check for now)
+        // Create new customer with encoded password (duplicate emails are rejected by the unique index)
         Customer customer = new Customer();
         customer.setName(request.getName());
         customer.setEmail(request.getEmail());
-        customer.setPassword(passwordEncoder.encode(request.getPassword()));
+        customer.setPassword(passwordHashingService.encode(request.getPassword()));
         
         // Save customer via Data Service
         Customer savedCustomer = dataServiceClient.createCustomer(customer);
         
-        // Generate JWT token for the newly registered customer
-        String token = jwtTokenService.generateToken(savedCustomer.getEmail(), savedCustomer.getEmail());
+        // Generate JWT token for the newly registered customer, with its new ID like a login token
+        String token = jwtTokenService.generateToken(savedCustomer.getEmail(), savedCustomer.getEmail(), savedCustomer.getId());
         
         return new JwtResponse(token, savedCustomer.getEmail(), savedCustomer.getEmail());
     }
@@ -43,36 +46,48 @@ public class AccountService {
      * Authenticate customer and generate JWT token
      */
     public JwtResponse authenticateCustomer(LoginRequest loginRequest) {
-        System.out.println("DEBUG: Attempting to authenticate user with email: " + loginRequest.getUsername());
-        
-        // Find customer by username (email) - this will still use the flawed method for now
+        // Find customer by username (email) via the Data Service's indexed lookup
         Customer customer = dataServiceClient.findCustomerByEmail(loginRequest.getUsername());
         
         if (customer == null) {
-            System.out.println("DEBUG: Customer not found with email: " + loginRequest.getUsername());
+            log.debug("Login failed: no customer with the given email");
             throw new RuntimeException("Customer not found with email: " + loginRequest.getUsername());
         }
         
-        System.out.println("DEBUG: Customer found - ID: " + customer.getId() + ", Email: " + customer.getEmail());
-        System.out.println("DEBUG: Stored password hash: " + (customer.getPassword() != null ? "Present" : "Null"));
-        System.out.println("DEBUG: Login password provided: " + (loginRequest.getPassword() != null ? "Present" : "Null"));
-        
         // Verify password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), customer.getPassword())) {
-            System.out.println("DEBUG: Password verification failed");
+        if (!passwordHashingService.matches(loginRequest.getPassword(), customer.getPassword())) {
+            log.debug("Login failed: wrong password for customer {}", customer.getId());
             throw new RuntimeException("Invalid password");
         }
         
-        System.out.println("DEBUG: Password verification successful");
+        log.debug("Login succeeded for customer {}", customer.getId());
         
         // Generate JWT token
         String token = jwtTokenService.generateToken(customer.getEmail(), customer.getEmail(), customer.getId());
         
+        if (passwordHashingService.needsRehash(customer.getPassword())) {
+            rehashPassword(customer, loginRequest.getPassword());
+        }
+        
         return new JwtResponse(token, customer.getEmail(), customer.getEmail());
     }
     
     /**
-     * Find customer by email (for /me endpoint)
+     * Re-hash a password stored with an outdated BCrypt cost. Best effort: the login has already
+     * succeeded, so a busy executor or an unreachable Data Service just leaves the old hash for next time.
+     */
+    private void rehashPassword(Customer customer, String rawPassword) {
+        try {
+            String upgradedHash = passwordHashingService.encode(rawPassword);
+            dataServiceClient.updateCustomerPassword(customer.getId(), upgradedHash);
+            log.info("Upgraded password hash cost for customer {}", customer.getId());
+        } catch (RuntimeException e) {
+            log.warn("Password hash upgrade skipped for customer {}: {}", customer.getId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Find customer by email (for /me with registration tokens issued before they carried the customer ID)
      */
     public Customer findCustomerByEmail(String email) {
         return dataServiceClient.findCustomerByEmail(email);
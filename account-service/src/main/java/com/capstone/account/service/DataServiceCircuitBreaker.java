@@ -0,0 +1,92 @@
+package com.capstone.account.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for the account -> data service hop. After a run of consecutive failures the
+ * circuit opens and calls fail immediately instead of waiting on a dead service; once the open
+ * period is over a single trial call decides whether to close it again. A trial that never reports
+ * back is given up after another open period and the next caller makes a new one, so the breaker
+ * cannot get stuck half-open. Lock-free, so it never blocks (or pins) a request thread.
+ */
+@Component
+public class DataServiceCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder rejectedCalls = new LongAdder();
+    // When the circuit opened, or when the last trial call went out
+    private final AtomicLong openedAt = new AtomicLong();
+
+    @Autowired
+    public DataServiceCircuitBreaker(@Value("${data.service.circuit.failure-threshold:5}") int failureThreshold,
+                                     @Value("${data.service.circuit.open-duration:10s}") Duration openDuration,
+                                     MeterRegistry meterRegistry) {
+        this(failureThreshold, openDuration, meterRegistry, System::nanoTime);
+    }
+
+    DataServiceCircuitBreaker(int failureThreshold, Duration openDuration, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.clock = clock;
+
+        Gauge.builder("data.service.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("Data Service circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        FunctionCounter.builder("data.service.circuit.rejected", rejectedCalls, LongAdder::sum)
+                .description("Calls failed fast because the circuit was open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a call may go out now. While open, only the first caller after the open period gets
+     * through; while half-open, the next one only once that trial has been out for an open period.
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        long since = openedAt.get();
+        if (now - since >= openDurationNanos && openedAt.compareAndSet(since, now)) {
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            return true;
+        }
+        rejectedCalls.increment();
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(clock.getAsLong());
+            state.set(State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
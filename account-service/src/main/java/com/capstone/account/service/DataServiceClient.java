@@ -1,18 +1,38 @@
 package com.capstone.account.service;
 
 import com.capstone.account.model.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class DataServiceClient {
     
+    private static final List<String> OPERATIONS =
+            List.of("createCustomer", "getAllCustomers", "findCustomerByEmail", "updateCustomerPassword");
+    private static final List<String> OUTCOMES = List.of("success", "client_error", "unavailable");
+    
     private final RestTemplate restTemplate;
+    private final DataServiceCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    // data.service.calls timers by operation, then outcome; registered once, not on every call
+    private final Map<String, Map<String, Timer>> callTimers;
     
     @Value("${data.service.url}")
     private String dataServiceUrl;
@@ -20,8 +40,29 @@ public class DataServiceClient {
     @Value("${data.service.customer.endpoint}")
     private String customerEndpoint;
     
-    public DataServiceClient() {
-        this.restTemplate = new RestTemplate();
+    @Value("${data.service.call-deadline:5s}")
+    private Duration callDeadline;
+    
+    @Value("${data.service.retry.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${data.service.retry.backoff:100ms}")
+    private Duration retryBackoff;
+    
+    public DataServiceClient(@Qualifier("dataServiceRestTemplate") RestTemplate restTemplate,
+                             DataServiceCircuitBreaker circuitBreaker,
+                             MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.callTimers = OPERATIONS.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+                operation -> OUTCOMES.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+                        outcome -> Timer.builder("data.service.calls")
+                                .description("Data Service calls including retries")
+                                .tag("operation", operation)
+                                .tag("outcome", outcome)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry)))));
     }
     
     /**
@@ -36,7 +77,8 @@ public class DataServiceClient {
             
             HttpEntity<Customer> request = new HttpEntity<>(customer, headers);
             
-            ResponseEntity<Customer> response = restTemplate.postForEntity(url, request, Customer.class);
+            // Not idempotent: a retried POST could create the customer twice
+            ResponseEntity<Customer> response = call("createCustomer", false, () -> restTemplate.postForEntity(url, request, Customer.class));
             return response.getBody();
         } catch (HttpClientErrorException e) {
             throw new RuntimeException("Failed to create customer in Data Service: " + e.getMessage(), e);
@@ -50,12 +92,12 @@ public class DataServiceClient {
         try {
             String url = dataServiceUrl + customerEndpoint;
             
-            ResponseEntity<List<Customer>> response = restTemplate.exchange(
+            ResponseEntity<List<Customer>> response = call("getAllCustomers", true, () -> restTemplate.exchange(
                 url, 
                 HttpMethod.GET, 
                 null, 
                 new org.springframework.core.ParameterizedTypeReference<List<Customer>>() {}
-            );
+            ));
             return response.getBody();
         } catch (HttpClientErrorException e) {
             throw new RuntimeException("Failed to retrieve customers from Data Service: " + e.getMessage(), e);
@@ -63,37 +105,108 @@ public class DataServiceClient {
     }
     
     /**
-     * Find customer by email
+     * Find customer by email using the Data Service's indexed single-document lookup
      */
     public Customer findCustomerByEmail(String email) {
+        URI url = UriComponentsBuilder.fromUriString(dataServiceUrl + customerEndpoint + "/lookup")
+                .queryParam("email", "{email}")
+                .encode()
+                .buildAndExpand(email)
+                .toUri();
+
         try {
-            System.out.println("DEBUG: Fetching all customers to find email: " + email);
-            List<Customer> customers = getAllCustomers();
-            System.out.println("DEBUG: Retrieved " + (customers != null ? customers.size() : 0) + " customers");
-            
-            if (customers != null && !customers.isEmpty()) {
-                for (Customer customer : customers) {
-                    System.out.println("DEBUG: Customer - ID: " + customer.getId() + ", Email: " + customer.getEmail() + ", Password: " + (customer.getPassword() != null ? "Present" : "Null"));
-                }
-            }
-            
-            Customer foundCustomer = customers.stream()
-                    .filter(customer -> email.equals(customer.getEmail()))
-                    .findFirst()
-                    .orElse(null);
-                    
-            System.out.println("DEBUG: Customer found for email " + email + ": " + (foundCustomer != null ? "Yes" : "No"));
-            return foundCustomer;
-        } catch (Exception e) {
-            System.out.println("DEBUG: Error finding customer by email: " + e.getMessage());
+            return call("findCustomerByEmail", true, () -> restTemplate.getForObject(url, Customer.class));
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        } catch (HttpClientErrorException e) {
             throw new RuntimeException("Failed to find customer by email: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Replace a customer's password hash, authorized by the service key every Data Service call carries
+     */
+    public void updateCustomerPassword(String customerId, String passwordHash) {
+        URI url = UriComponentsBuilder.fromUriString(dataServiceUrl + customerEndpoint + "/{id}/password")
+                .encode()
+                .buildAndExpand(customerId)
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, String>> request = new HttpEntity<>(Map.of("password", passwordHash), headers);
+
+        // Setting the same hash twice is harmless, so this PUT may be retried
+        call("updateCustomerPassword", true, () -> restTemplate.exchange(url, HttpMethod.PUT, request, Void.class));
+    }
+    
     /**
      * Check if a customer exists by email
      */
     public boolean customerExistsByEmail(String email) {
         return findCustomerByEmail(email) != null;
     }
+    
+    /**
+     * Run one Data Service call through the circuit breaker. Idempotent calls are retried with
+     * backoff on connection errors and 5xx answers, as long as the call deadline allows it.
+     * A 4xx answer means the service is healthy and is passed on as is.
+     * Each call, including its retries, is timed as data.service.calls{operation,outcome}.
+     */
+    private <T> T call(String operation, boolean idempotent, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "unavailable";
+        try {
+            T result = callWithRetry(idempotent, request);
+            outcome = "success";
+            return result;
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            throw e;
+        } finally {
+            sample.stop(callTimers.get(operation).get(outcome));
+        }
+    }
+    
+    private <T> T callWithRetry(boolean idempotent, Supplier<T> request) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new DataServiceUnavailableException("Data Service is unavailable (circuit open)");
+        }
+        
+        long deadline = System.nanoTime() + callDeadline.toNanos();
+        int attempts = idempotent ? Math.max(1, maxAttempts) : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Each attempt's read timeout is capped at the time left before the deadline
+                T result = DataServiceDeadline.within(deadline, request);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (HttpClientErrorException e) {
+                circuitBreaker.onSuccess();
+                throw e;
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                long backoffNanos = retryBackoff.toNanos() * attempt;
+                if (attempt >= attempts || System.nanoTime() + backoffNanos >= deadline) {
+                    circuitBreaker.onFailure();
+                    throw new DataServiceUnavailableException("Data Service call failed: " + e.getMessage(), e);
+                }
+                sleep(backoffNanos);
+            } catch (RuntimeException e) {
+                // Anything else (an unreadable response, an interrupt) is not retried, but still has to
+                // settle the breaker, or a half-open trial would never report back
+                circuitBreaker.onFailure();
+                throw e;
+            }
+        }
+    }
+    
+    private void sleep(long nanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onFailure();
+            throw new DataServiceUnavailableException("Interrupted while retrying a Data Service call", e);
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.capstone.account.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the Data Service call running on this thread. DataServiceClient sets it around each
+ * attempt, and the request factories in DataServiceClientConfig cap the attempt's read timeout at
+ * the time that is left, so no attempt can run past {@code data.service.call-deadline}.
+ */
+public final class DataServiceDeadline {
+
+    // Below this the clients would treat the timeout as "none"; the attempt fails right away instead
+    private static final long MIN_TIMEOUT_NANOS = Duration.ofMillis(1).toNanos();
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private DataServiceDeadline() {
+    }
+
+    static <T> T within(long deadlineNanos, Supplier<T> call) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(deadlineNanos);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Read timeout for a request starting now: max, or the time left before the deadline if that is shorter
+     */
+    public static Duration timeout(Duration max) {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return max;
+        }
+        long left = deadline - System.nanoTime();
+        return Duration.ofNanos(Math.max(MIN_TIMEOUT_NANOS, Math.min(max.toNanos(), left)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.capstone.account.service;
+
+/**
+ * Thrown when the Data Service cannot be reached in time, or its circuit breaker is open.
+ */
+public class DataServiceUnavailableException extends RuntimeException {
+
+    public DataServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public DataServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,173 @@
+package com.capstone.account.service;
+
+import com.capstone.common.PemKeys;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Signing and verification keys indexed by key id ("kid"), built once and swapped as a whole when
+ * the key directory changes, so tokens are never signed or checked with a key decoded per call.
+ * <p>
+ * The HMAC secret is always in the ring under {@code jwt.secret.kid}. {@code jwt.keys.dir} may add
+ * asymmetric keys as PEM files: {@code <kid>-private.pem} (PKCS#8) to sign and {@code <kid>-public.pem}
+ * (X.509) to verify, RSA (RS256) or Ed25519 (EdDSA). Tokens are signed with the key named in the
+ * directory's {@code active} file, else {@code jwt.keys.active}, else the HMAC secret. The directory is
+ * re-read every {@code jwt.keys.reload-interval} and when a token names an unknown kid, so keys can be
+ * rotated without a restart: publish the new public key to all services first, then switch active.
+ * The resource service has its own verify-only ring (it must never load a private key); the PEM
+ * parsing both use is in the shared PemKeys.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    // An unknown kid may be a key published after the last reload, but must not trigger a reload per request
+    private static final long MIN_FORCED_RELOAD_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final String secretKid;
+    private final Key secretKey;
+    private final Path keyDir;
+    private final String configuredActive;
+    private final long reloadIntervalNanos;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.secret.kid:default}") String secretKid,
+                      @Value("${jwt.keys.dir:}") String keyDir,
+                      @Value("${jwt.keys.active:}") String active,
+                      @Value("${jwt.keys.reload-interval:1m}") Duration reloadInterval) {
+        this.secretKid = secretKid;
+        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.keyDir = keyDir.isBlank() ? null : Path.of(keyDir);
+        this.configuredActive = active.isBlank() ? null : active.trim();
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.snapshot = load();
+    }
+
+    /**
+     * The key new tokens are signed with
+     */
+    public SigningKey signingKey() {
+        Snapshot current = snapshot;
+        if (System.nanoTime() - current.loadedAt() > reloadIntervalNanos) {
+            current = reload(current);
+        }
+        return current.signing();
+    }
+
+    /**
+     * Key locator for the token parser: the key named by the header's kid. Tokens without a kid
+     * were issued before key ids existed and are checked against the HMAC secret.
+     */
+    public Key locate(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            return secretKey;
+        }
+        Snapshot current = snapshot;
+        long age = System.nanoTime() - current.loadedAt();
+        if (age > reloadIntervalNanos) {
+            current = reload(current);
+        }
+        Key key = current.verification().get(kid);
+        if (key == null && age > MIN_FORCED_RELOAD_NANOS) {
+            key = reload(current).verification().get(kid);
+        }
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Re-read the key directory unless another thread is doing so or already did since {@code seen} was taken
+     */
+    private Snapshot reload(Snapshot seen) {
+        if (!reloadLock.tryLock()) {
+            return snapshot;
+        }
+        try {
+            if (snapshot == seen) {
+                snapshot = load();
+            }
+            return snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        Map<String, Key> verification = new HashMap<>();
+        Map<String, PrivateKey> signing = new HashMap<>();
+        verification.put(secretKid, secretKey);
+        String active = configuredActive;
+        if (keyDir != null) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(keyDir, "*.pem")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    try {
+                        if (name.endsWith("-public.pem")) {
+                            verification.put(name.substring(0, name.length() - "-public.pem".length()), PemKeys.readPublicKey(file));
+                        } else if (name.endsWith("-private.pem")) {
+                            signing.put(name.substring(0, name.length() - "-private.pem".length()), PemKeys.readPrivateKey(file));
+                        }
+                    } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+                        log.warn("Skipping unreadable JWT key file {}: {}", file, e.getMessage());
+                    }
+                }
+                Path activeFile = keyDir.resolve("active");
+                if (Files.isRegularFile(activeFile)) {
+                    active = Files.readString(activeFile).trim();
+                }
+            } catch (IOException e) {
+                // Keep serving with the keys we have; the next reload tries again
+                log.warn("Cannot read JWT key directory {}: {}", keyDir, e.getMessage());
+                Snapshot previous = snapshot;
+                if (previous != null) {
+                    return new Snapshot(previous.signing(), previous.verification(), System.nanoTime());
+                }
+            }
+        }
+
+        SigningKey signingKey = new SigningKey(secretKid, secretKey);
+        if (active != null && !active.isEmpty() && !active.equals(secretKid)) {
+            PrivateKey privateKey = signing.get(active);
+            if (privateKey == null || !verification.containsKey(active)) {
+                log.warn("Active JWT key {} needs both {}-private.pem and {}-public.pem; signing with {}", active, active, active, secretKid);
+            } else {
+                signingKey = new SigningKey(active, privateKey);
+            }
+        }
+        return new Snapshot(signingKey, Map.copyOf(verification), System.nanoTime());
+    }
+
+    /**
+     * A key to sign with and the kid put into the header of the tokens it signs
+     */
+    public record SigningKey(String kid, Key key) {
+    }
+
+    private record Snapshot(SigningKey signing, Map<String, Key> verification, long loadedAt) {
+    }
+}
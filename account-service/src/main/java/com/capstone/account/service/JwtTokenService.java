@@ -1,102 +1,94 @@
 package com.capstone.account.service;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 
 @Service
 public class JwtTokenService {
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-    
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    /**
-     * Generate JWT token for authenticated user (with customer ID)
-     */
-    public String generateToken(String username, String email, String customerId) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        return Jwts.builder()
-                .subject(username)
-                .claim("email", email)
-                .claim("customerId", customerId)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(key)
-                .compact();
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final Timer signingTimer;
+    private final Timer verificationTimer;
+    
+    public JwtTokenService(JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        // Built once: the parser is immutable and asks the key ring for the key named by each token's kid
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing::locate)
+                .build();
+        this.signingTimer = Timer.builder("jwt.signing")
+                .description("JWT creation and signing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("JWT signature verification and claim parsing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     /**
-     * Generate JWT token for registration (without customer ID initially)
+     * Generate JWT token for a customer; login and registration both embed the customer ID,
+     * so /me and the resource service never have to look it up
      */
-    public String generateToken(String username, String email) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        return Jwts.builder()
-                .subject(username)
-                .claim("email", email)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(key)
-                .compact();
+    public String generateToken(String username, String email, String customerId) {
+        return signingTimer.record(() -> {
+            Date now = new Date();
+            Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+            
+            JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+            
+            // The algorithm follows the key: HS256/384/512 by secret length, RS256 for RSA, EdDSA for Ed25519
+            return Jwts.builder()
+                    .header().keyId(signingKey.kid()).and()
+                    .subject(username)
+                    .claim("email", email)
+                    .claim("customerId", customerId)
+                    .issuedAt(now)
+                    .expiration(expiryDate)
+                    .signWith(signingKey.key())
+                    .compact();
+        });
     }
     
     /**
      * Get username from JWT token
      */
     public String getUsernameFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
     
     /**
      * Get email from JWT token
      */
     public String getEmailFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("email", String.class);
+        return parseClaims(token).get("email", String.class);
     }
     
     /**
      * Get customer ID from JWT token
      */
     public String getCustomerIdFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("customerId", String.class);
+        return parseClaims(token).get("customerId", String.class);
+    }
+    
+    /**
+     * Verify the token once and return its claims, or null if it is invalid or expired
+     */
+    public Claims getVerifiedClaims(String token) {
+        try {
+            return parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
     
     /**
@@ -104,15 +96,20 @@ public class JwtTokenService {
      */
     public boolean validateToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+    
+    private Claims parseClaims(String token) {
+        Timer.Sample sample = Timer.start();
+        try {
+            return parser.parseSignedClaims(token)
+                    .getPayload();
+        } finally {
+            sample.stop(verificationTimer);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.capstone.account.service;
+
+/**
+ * Thrown when the password hashing executor is saturated and a hash or verification is rejected.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
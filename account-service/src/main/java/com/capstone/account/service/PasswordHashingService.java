@@ -0,0 +1,108 @@
+package com.capstone.account.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated executor sized to the CPU cores with a
+ * bounded queue. A login storm can then only use that many cores; once the queue is full,
+ * further logins are rejected immediately instead of starving /register and /me.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService monitoredExecutor;
+    private final long timeoutNanos;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.password.hashing.threads:0}") int threads,
+                                  @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.hashing.timeout:3s}") Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutNanos = timeout.toNanos();
+        // BCrypt is CPU-bound, so these stay platform threads even in the virtual-threads profile
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        // Only the BCrypt work itself; queue wait shows up in the executor metrics
+        this.encodeTimer = bcryptTimer(meterRegistry, "encode");
+        this.matchesTimer = bcryptTimer(meterRegistry, "matches");
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Whether the hash was made with a lower cost than the one currently configured
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = monitoredExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingOverloadedException("Too many concurrent password checks, try again shortly");
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingOverloadedException("Password check timed out, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("Interrupted while waiting for a password check");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer bcryptTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.bcrypt")
+                .description("BCrypt hashing and verification time")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.capstone.account.service;
+
+import com.capstone.account.service.DataServiceCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataServiceCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final DataServiceCircuitBreaker breaker =
+            new DataServiceCircuitBreaker(3, OPEN_DURATION, new SimpleMeterRegistry(), now::get);
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheOpenPeriod() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos() - 1);
+        assertFalse(breaker.tryAcquire());
+
+        now.addAndGet(1);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedTrialOpensTheCircuitAgain() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        now.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void trialThatNeverReportsBackIsReplaced() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        assertTrue(breaker.tryAcquire());
+
+        // Neither onSuccess nor onFailure: the trial call got lost
+        now.addAndGet(OPEN_DURATION.toNanos() / 2);
+        assertFalse(breaker.tryAcquire());
+        now.addAndGet(OPEN_DURATION.toNanos() / 2);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+}
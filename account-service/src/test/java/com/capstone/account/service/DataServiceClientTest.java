@@ -0,0 +1,123 @@
+package com.capstone.account.service;
+
+import com.capstone.account.model.Customer;
+import com.capstone.account.service.DataServiceCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withResourceNotFound;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Retry rules of the Data Service client: idempotent calls are retried on connection errors and
+ * 5xx up to max-attempts, POSTs never are, and 4xx answers go back to the caller as they are.
+ * Every outcome settles the circuit breaker, and no attempt may wait past the call deadline.
+ */
+class DataServiceClientTest {
+
+    private static final String CUSTOMERS = "http://data-service/api/customers";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final DataServiceCircuitBreaker breaker =
+            new DataServiceCircuitBreaker(1, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final DataServiceClient client = client(breaker);
+
+    private DataServiceClient client(DataServiceCircuitBreaker circuitBreaker) {
+        DataServiceClient client = new DataServiceClient(restTemplate, circuitBreaker, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "dataServiceUrl", "http://data-service/api");
+        ReflectionTestUtils.setField(client, "customerEndpoint", "/customers");
+        ReflectionTestUtils.setField(client, "callDeadline", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(client, "maxAttempts", 3);
+        ReflectionTestUtils.setField(client, "retryBackoff", Duration.ofMillis(1));
+        return client;
+    }
+
+    @Test
+    void retriesIdempotentCallsOnServerErrors() {
+        server.expect(once(), requestTo(CUSTOMERS)).andRespond(withServerError());
+        server.expect(once(), requestTo(CUSTOMERS)).andRespond(withException(new IOException("connection reset")));
+        server.expect(once(), requestTo(CUSTOMERS)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        List<Customer> customers = client.getAllCustomers();
+
+        assertTrue(customers.isEmpty());
+        assertEquals(State.CLOSED, breaker.getState());
+        server.verify();
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAndOpensTheCircuit() {
+        server.expect(times(3), requestTo(CUSTOMERS)).andRespond(withServerError());
+
+        assertThrows(DataServiceUnavailableException.class, client::getAllCustomers);
+
+        server.verify();
+        assertEquals(State.OPEN, breaker.getState());
+        assertThrows(DataServiceUnavailableException.class, client::getAllCustomers);
+    }
+
+    @Test
+    void neverRetriesCreate() {
+        server.expect(once(), requestTo(CUSTOMERS)).andExpect(method(HttpMethod.POST)).andRespond(withServerError());
+
+        assertThrows(DataServiceUnavailableException.class,
+                () -> client.createCustomer(new Customer("Alice", "alice@example.com", "hash")));
+
+        server.verify();
+    }
+
+    @Test
+    void clientErrorsAreNotRetriedAndKeepTheCircuitClosed() {
+        server.expect(once(), requestTo(startsWith(CUSTOMERS + "/lookup"))).andRespond(withResourceNotFound());
+
+        assertNull(client.findCustomerByEmail("alice@example.com"));
+
+        server.verify();
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void unexpectedFailuresStillSettleTheBreaker() {
+        server.expect(once(), requestTo(CUSTOMERS)).andRespond(withSuccess("not json", MediaType.APPLICATION_JSON));
+
+        assertThrows(RestClientException.class, client::getAllCustomers);
+
+        server.verify();
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void attemptsGetTheTimeLeftBeforeTheDeadline() {
+        List<Duration> timeouts = new ArrayList<>();
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            timeouts.add(DataServiceDeadline.timeout(Duration.ofMinutes(1)));
+            return execution.execute(request, body);
+        });
+        server.expect(once(), requestTo(CUSTOMERS)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        client.getAllCustomers();
+
+        assertTrue(timeouts.get(0).compareTo(Duration.ofSeconds(5)) <= 0, "timeout " + timeouts.get(0));
+        assertEquals(Duration.ofMinutes(1), DataServiceDeadline.timeout(Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.capstone.account.service;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    @TempDir
+    Path keyDir;
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private void publish(String kid, KeyPair keyPair) throws Exception {
+        Files.writeString(keyDir.resolve(kid + "-private.pem"), pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.writeString(keyDir.resolve(kid + "-public.pem"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String token(JwtKeyRing keyRing) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(signingKey.key())
+                .compact();
+    }
+
+    @Test
+    void rotatedKeysTakeEffectWithoutARestart() throws Exception {
+        // A zero interval re-reads the directory on every use
+        JwtKeyRing keyRing = new JwtKeyRing(SECRET, "default", keyDir.toString(), "", Duration.ZERO);
+        JwtParser parser = Jwts.parser().keyLocator(keyRing::locate).build();
+        assertEquals("default", keyRing.signingKey().kid());
+
+        publish("2026-10", KeyPairGenerator.getInstance("Ed25519").generateKeyPair());
+        Files.writeString(keyDir.resolve("active"), "2026-10\n");
+        String rotated = token(keyRing);
+        assertEquals("2026-10", keyRing.signingKey().kid());
+        assertEquals("alice", parser.parseSignedClaims(rotated).getPayload().getSubject());
+
+        // Retiring the key stops verification of its tokens too, not only signing with it
+        Files.delete(keyDir.resolve("active"));
+        Files.delete(keyDir.resolve("2026-10-private.pem"));
+        Files.delete(keyDir.resolve("2026-10-public.pem"));
+        assertThrows(JwtException.class, () -> parser.parseSignedClaims(rotated));
+        assertEquals("default", keyRing.signingKey().kid());
+    }
+}
@@ -0,0 +1,48 @@
+package com.capstone.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Reads the RSA or Ed25519 keys of the JWT key directory from PEM files: X.509 public keys
+ * ({@code <kid>-public.pem}), read by both services, and PKCS#8 private keys ({@code <kid>-private.pem}),
+ * only ever read by the account service, which signs.
+ */
+public final class PemKeys {
+
+    private PemKeys() {
+    }
+
+    public static Key readPublicKey(Path file) throws IOException, GeneralSecurityException {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(pemBytes(file));
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(spec);
+        } catch (GeneralSecurityException e) {
+            return KeyFactory.getInstance("Ed25519").generatePublic(spec);
+        }
+    }
+
+    public static PrivateKey readPrivateKey(Path file) throws IOException, GeneralSecurityException {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(pemBytes(file));
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(spec);
+        } catch (GeneralSecurityException e) {
+            return KeyFactory.getInstance("Ed25519").generatePrivate(spec);
+        }
+    }
+
+    private static byte[] pemBytes(Path file) throws IOException {
+        String base64 = Files.readString(file)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,73 @@
+package com.capstone.common;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Guard for the virtual-threads profile: watches the JFR jdk.VirtualThreadPinned event and reports
+ * every place where a virtual thread stayed pinned to its carrier (e.g. blocking inside a
+ * synchronized block) for longer than the threshold, so such code paths can be found and fixed.
+ * Compiled into both the resource and the account service, which each set the threshold.
+ */
+@Component
+@Profile("virtual-threads")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final int REPORTED_FRAMES = 5;
+
+    private final Duration threshold;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinnedEvents.increment();
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                    describe(event.getStackTrace()));
+        });
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public long getPinnedEventCount() {
+        return pinnedEvents.sum();
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown location";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(REPORTED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+}
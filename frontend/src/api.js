@@ -1,5 +1,7 @@
 const ACCOUNT_SERVICE_URL = 'http://localhost:8081/account';
 const RESOURCE_SERVICE_URL = 'http://localhost:8080/api';
+// Customer fields shown by CustomerList; /customers only returns name, email and companyName by default
+const CUSTOMER_LIST_FIELDS = 'name,email,companyName,location,employeeCount,phoneNumber,jobTitle';
 
 class ApiService {
   constructor() {
@@ -88,7 +90,7 @@ class ApiService {
   }
 
   async getAllCustomers() {
-    return this.request('/customers');
+    return this.request(`/customers${this.toQueryString({ fields: CUSTOMER_LIST_FIELDS })}`);
   }
 
   async getCustomer(id) {
@@ -156,7 +158,7 @@ class ApiService {
     
     try {
       // Try to make a request to verify token is still valid
-      await this.getAllCustomers();
+      await this.getCustomersPage({ page: 0, size: 1 });
       return { isLoggedIn: true };
     } catch (error) {
       this.setToken(null);
@@ -164,43 +166,37 @@ class ApiService {
     }
   }
 
-  // Filter methods - implement client-side filtering since backend doesn't have these endpoints
-  async filterCustomersByName(name) {
-    const customers = await this.getAllCustomers();
-    return customers.filter(customer => 
-      customer.name.toLowerCase().includes(name.toLowerCase())
-    );
+  // Build a query string from the non-empty entries of a params object
+  toQueryString(params = {}) {
+    const query = new URLSearchParams();
+    Object.entries(params).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        query.append(key, value);
+      }
+    });
+    const queryString = query.toString();
+    return queryString ? `?${queryString}` : '';
   }
 
-  async filterCustomersByCompany(companyName) {
-    const customers = await this.getAllCustomers();
-    return customers.filter(customer => 
-      customer.companyName && customer.companyName.toLowerCase().includes(companyName.toLowerCase())
-    );
+  // Paged listing - returns { content, page, size, hasNext, nextCursor }.
+  // Pass { page, size, sort } for offset paging or { after, size } for keyset paging, plus any filters;
+  // the resource service answers 400 to a parameter that is not one of its filters.
+  async getCustomersPage(params = {}) {
+    return this.request(`/customers${this.toQueryString({ fields: CUSTOMER_LIST_FIELDS, ...params })}`);
   }
 
-  async filterCustomersByLocation(location) {
-    const customers = await this.getAllCustomers();
-    return customers.filter(customer => 
-      customer.location && customer.location.toLowerCase().includes(location.toLowerCase())
-    );
+  // Event management methods
+  async getAllEvents() {
+    return this.request('/events');
   }
 
-  async filterCustomersByAttributes(attributes) {
-    const customers = await this.getAllCustomers();
-    return customers.filter(customer => {
-      return Object.entries(attributes).every(([key, value]) => {
-        if (typeof value === 'number') {
-          return customer[key] === value;
-        }
-        return customer[key] && customer[key].toString().toLowerCase().includes(value.toString().toLowerCase());
-      });
-    });
+  async getEventsPage(params = {}) {
+    return this.request(`/events${this.toQueryString(params)}`);
   }
 
-  // Event management methods
-  async getAllEvents() {
-    return this.request('/events');
+  // Events starting in [from, to), sorted by start date; from/to are ISO dates or date-times
+  async getEventsBetween(from, to, params = {}) {
+    return this.getEventsPage({ ...params, from, to });
   }
 
   async getEvent(id) {
@@ -232,6 +228,10 @@ class ApiService {
     return this.request('/registrations');
   }
 
+  async getRegistrationsPage(params = {}) {
+    return this.request(`/registrations${this.toQueryString(params)}`);
+  }
+
   async getRegistration(id) {
     return this.request(`/registrations/${id}`);
   }
@@ -284,8 +284,14 @@ class ApiService {
     throw new Error('Registration not found');
   }
 
-  async getMyRegistrations(customerId) {
-    return this.getRegistrationsByCustomerId(customerId);
+  // The signed-in customer's registrations, found by the customerId in the token
+  async getMyRegistrations() {
+    return this.request('/registrations/me');
+  }
+
+  // Registrations with their event embedded as `event`, in a single request
+  async getMyRegistrationsWithEvents() {
+    return this.request('/registrations/me?expand=event');
   }
 
   // Get current user info from JWT token
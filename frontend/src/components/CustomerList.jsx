@@ -1,14 +1,14 @@
+import Pagination from './Pagination'
 import './CustomerList.css'
 
 function CustomerList({ 
   customers, 
-  totalCustomers, 
   selectedCustomerId, 
   onSelectCustomer, 
   activeFilter,
   currentPage,
   itemsPerPage,
-  totalPages,
+  hasNext,
   onPageChange,
   onClearFilter
 }) {
@@ -26,40 +26,15 @@ function CustomerList({
   }
 
   const getPageInfo = () => {
-    if (totalCustomers <= itemsPerPage) {
-      return `(${totalCustomers} customers)`
+    if (currentPage === 1 && !hasNext) {
+      return `(${customers.length} customers)`
     }
     
     const start = (currentPage - 1) * itemsPerPage + 1
-    const end = Math.min(currentPage * itemsPerPage, totalCustomers)
-    return `(${start}-${end} of ${totalCustomers} customers)`
+    const end = start + customers.length - 1
+    return `(${start}-${end} customers)`
   }
 
-  const generatePageNumbers = () => {
-    if (totalPages <= 1) return []
-    
-    const pages = []
-    const maxVisiblePages = 3 
-    
-    if (totalPages <= maxVisiblePages) {
-      for (let i = 1; i <= totalPages; i++) {
-        pages.push(i)
-      }
-    } else {
-      if (currentPage <= 2) {
-        pages.push(1, 2, 3, '...', totalPages)
-      } else if (currentPage >= totalPages - 1) {
-        pages.push(1, '...', totalPages - 2, totalPages - 1, totalPages)
-      } else {
-        pages.push(1, '...', currentPage - 1, currentPage, currentPage + 1, '...', totalPages)
-      }
-    }
-    
-    return pages
-  }
-
-  const pageNumbers = generatePageNumbers()
-
   return (
     <div className="list-section">
       <div className="list-header">
@@ -83,45 +58,11 @@ function CustomerList({
       )}
       
       {/* Pagination section */}
-      {totalPages > 1 && (
-        <div className="pagination-section">
-          <div className="inline-pagination">
-            <button
-              className={`pagination-btn ${currentPage === 1 ? 'disabled' : ''}`}
-              onClick={() => onPageChange(currentPage - 1)}
-              disabled={currentPage === 1}
-              title="Previous page"
-            >
-              ‹
-            </button>
-
-            {pageNumbers.map((page, index) => (
-              page === '...' ? (
-                <span key={`ellipsis-${index}`} className="pagination-ellipsis">
-                  ...
-                </span>
-              ) : (
-                <button
-                  key={page}
-                  className={`pagination-btn page-number ${currentPage === page ? 'active' : ''}`}
-                  onClick={() => onPageChange(page)}
-                >
-                  {page}
-                </button>
-              )
-            ))}
-
-            <button
-              className={`pagination-btn ${currentPage === totalPages ? 'disabled' : ''}`}
-              onClick={() => onPageChange(currentPage + 1)}
-              disabled={currentPage === totalPages}
-              title="Next page"
-            >
-              ›
-            </button>
-          </div>
-        </div>
-      )}
+      <Pagination
+        currentPage={currentPage}
+        hasNext={hasNext}
+        onPageChange={onPageChange}
+      />
       <div className="customers">
         {customers.map(customer => (
           <div
@@ -8,8 +8,9 @@ import apiService from '../api.js'
 import './CustomerManagement.css'
 
 function CustomerManagement({ onLogout, onNavigate }) {
-  const [customers, setCustomers] = useState([])
-  const [allCustomers, setAllCustomers] = useState([]) // Keep original list for filtering
+  const [customers, setCustomers] = useState([]) // The current page only
+  const [hasNext, setHasNext] = useState(false)
+  const [activeQuery, setActiveQuery] = useState({}) // Filter parameters sent with every page request
   const [selected, setSelected] = useState(null)
   const [isFiltering, setIsFiltering] = useState(false)
   const [activeFilter, setActiveFilter] = useState(null)
@@ -30,12 +31,21 @@ function CustomerManagement({ onLogout, onNavigate }) {
     loadCustomers()
   }, [])
 
-  const loadCustomers = async () => {
+  // Fetch one page of the matching customers; the resource service does the filtering and paging
+  const fetchPage = async (page, query) => {
+    const data = await apiService.getCustomersPage({ ...query, page: page - 1, size: itemsPerPage })
+    if (data.content.length === 0 && page > 1) {
+      // The last page emptied out (e.g. after a delete): show the one before it
+      return fetchPage(page - 1, query)
+    }
+    setCustomers(data.content)
+    setHasNext(data.hasNext)
+    setCurrentPage(page)
+  }
+
+  const loadCustomers = async (page = currentPage, query = activeQuery) => {
     try {
-      const data = await apiService.getAllCustomers()
-      setCustomers(data)
-      setAllCustomers(data)
-      setActiveFilter(null)
+      await fetchPage(page, query)
     } catch (error) {
       console.error('Error loading customers:', error)
     }
@@ -126,48 +136,35 @@ function CustomerManagement({ onLogout, onNavigate }) {
     clearForm()
   }
 
-  // Pagination helper functions
-  const getPaginatedCustomers = () => {
-    const startIndex = (currentPage - 1) * itemsPerPage
-    const endIndex = startIndex + itemsPerPage
-    return customers.slice(startIndex, endIndex)
-  }
-
-  const getTotalPages = () => {
-    return Math.ceil(customers.length / itemsPerPage)
-  }
-
-  const handlePageChange = (page) => {
-    setCurrentPage(page)
+  const handlePageChange = async (page) => {
+    await loadCustomers(page)
     setSelected(null) // Clear selection when changing pages
     clearForm()
   }
 
+  // The /customers query parameters for a filter chosen in CustomerFilter or by a natural language query
+  const toQuery = (filterType, filterValue) => {
+    switch (filterType) {
+      case 'name':
+        return { name: filterValue }
+      case 'company':
+        return { companyName: filterValue }
+      case 'location':
+        return { location: filterValue }
+      case 'attributes':
+        return filterValue
+      default:
+        throw new Error('Unknown filter type')
+    }
+  }
+
   const handleFilter = async (filterType, filterValue) => {
     setIsFiltering(true)
     try {
-      let filteredData
-      
-      switch (filterType) {
-        case 'name':
-          filteredData = await apiService.filterCustomersByName(filterValue)
-          break
-        case 'company':
-          filteredData = await apiService.filterCustomersByCompany(filterValue)
-          break
-        case 'location':
-          filteredData = await apiService.filterCustomersByLocation(filterValue)
-          break
-        case 'attributes':
-          filteredData = await apiService.filterCustomersByAttributes(filterValue)
-          break
-        default:
-          throw new Error('Unknown filter type')
-      }
-      
-      setCustomers(filteredData)
+      const query = toQuery(filterType, filterValue)
+      await fetchPage(1, query) // Start again from the first page when filtering
+      setActiveQuery(query)
       setActiveFilter({ type: filterType, value: filterValue })
-      setCurrentPage(1) // Reset to first page when filtering
       setSelected(null) // Clear selection when filtering
       clearForm()
     } catch (error) {
@@ -178,14 +175,25 @@ function CustomerManagement({ onLogout, onNavigate }) {
     }
   }
 
-  const handleClearFilter = () => {
-    setCustomers(allCustomers)
+  const handleClearFilter = async () => {
+    await loadCustomers(1, {}) // Back to the first page of all customers
+    setActiveQuery({})
     setActiveFilter(null)
-    setCurrentPage(1) // Reset to first page when clearing filters
     setSelected(null)
     clearForm()
   }
 
+  // Find the customer a natural language query names, by name first and then by email
+  const findCustomer = async (identifier) => {
+    for (const filter of ['name', 'email']) {
+      const page = await apiService.getCustomersPage({ [filter]: identifier, page: 0, size: 1 })
+      if (page.content.length > 0) {
+        return page.content[0]
+      }
+    }
+    return null
+  }
+
   const handleNLPQuery = async (action, parameters) => {
     setIsNLPProcessing(true)
     try {
@@ -227,11 +235,7 @@ function CustomerManagement({ onLogout, onNavigate }) {
         case 'update':
           // Handle updating existing customer
           if (parameters.identifier && parameters.updates) {
-            // Find customer by name or email
-            const customer = allCustomers.find(c => 
-              c.name.toLowerCase().includes(parameters.identifier.toLowerCase()) ||
-              c.email.toLowerCase().includes(parameters.identifier.toLowerCase())
-            )
+            const customer = await findCustomer(parameters.identifier)
             
             if (customer) {
               const customerId = customer._id || customer.id
@@ -248,11 +252,7 @@ function CustomerManagement({ onLogout, onNavigate }) {
         case 'delete':
           // Handle deleting customer
           if (parameters.identifier) {
-            // Find customer by name or email
-            const customer = allCustomers.find(c => 
-              c.name.toLowerCase().includes(parameters.identifier.toLowerCase()) ||
-              c.email.toLowerCase().includes(parameters.identifier.toLowerCase())
-            )
+            const customer = await findCustomer(parameters.identifier)
             
             if (customer) {
               const customerId = customer._id || customer.id
@@ -287,7 +287,7 @@ function CustomerManagement({ onLogout, onNavigate }) {
       <div className="filter-container">
         <NLPQuery 
           onExecuteQuery={handleNLPQuery}
-          customers={allCustomers}
+          customers={customers}
           isProcessing={isNLPProcessing}
         />
         <CustomerFilter 
@@ -300,14 +300,13 @@ function CustomerManagement({ onLogout, onNavigate }) {
       {/* Customer list and form */}
       <div className="container">
         <CustomerList 
-          customers={getPaginatedCustomers()}
-          totalCustomers={customers.length}
+          customers={customers}
           selectedCustomerId={selected}
           onSelectCustomer={selectCustomer}
           activeFilter={activeFilter}
           currentPage={currentPage}
           itemsPerPage={itemsPerPage}
-          totalPages={getTotalPages()}
+          hasNext={hasNext}
           onPageChange={handlePageChange}
           onClearFilter={handleClearFilter}
         />
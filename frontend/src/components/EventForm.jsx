@@ -9,6 +9,10 @@ function EventForm({
   onCancel,
   hasSelection 
 }) {
+  // The resource service refuses an end before the start; compare the day parts the inputs show
+  const endsBeforeStart = Boolean(form.eventStartDate && form.eventEndDate &&
+    form.eventEndDate.slice(0, 10) < form.eventStartDate.slice(0, 10))
+
   return (
     <div className="form-section">
       <h3>{isEditing ? 'Update Event' : 'Add Event'}</h3>
@@ -44,9 +48,17 @@ function EventForm({
           <label>Event Start Date</label>
           <input
             type="date"
-            value={form.eventStartDate}
+            value={form.eventStartDate ? form.eventStartDate.slice(0, 10) : ''}
             onChange={(e) => onFormChange({ ...form, eventStartDate: e.target.value })}
           />
+
+          <label>Event End Date (optional)</label>
+          <input
+            type="date"
+            value={form.eventEndDate ? form.eventEndDate.slice(0, 10) : ''}
+            min={form.eventStartDate ? form.eventStartDate.slice(0, 10) : undefined}
+            onChange={(e) => onFormChange({ ...form, eventEndDate: e.target.value || null })}
+          />
         </div>
       </div>
 
@@ -61,7 +73,7 @@ function EventForm({
         <button 
           className="btn primary" 
           onClick={onSave}
-          disabled={!form.eventName || !form.eventDescription || !form.eventStartDate}
+          disabled={!form.eventName || !form.eventDescription || !form.eventStartDate || endsBeforeStart}
         >
           Save
         </button>
@@ -1,14 +1,14 @@
+import Pagination from './Pagination'
 import './EventList.css'
 
 function EventList({ 
   events, 
-  totalEvents, 
   selectedEventId, 
   onSelectEvent, 
   activeFilter,
   currentPage,
   itemsPerPage,
-  totalPages,
+  hasNext,
   onPageChange,
   onClearFilter,
   onRegisterForEvent,
@@ -30,40 +30,15 @@ function EventList({
   }
 
   const getPageInfo = () => {
-    if (totalEvents <= itemsPerPage) {
-      return `(${totalEvents} events)`
+    if (currentPage === 1 && !hasNext) {
+      return `(${events.length} events)`
     }
     
     const start = (currentPage - 1) * itemsPerPage + 1
-    const end = Math.min(currentPage * itemsPerPage, totalEvents)
-    return `(${start}-${end} of ${totalEvents} events)`
+    const end = start + events.length - 1
+    return `(${start}-${end} events)`
   }
 
-  const generatePageNumbers = () => {
-    if (totalPages <= 1) return []
-    
-    const pages = []
-    const maxVisiblePages = 3 
-    
-    if (totalPages <= maxVisiblePages) {
-      for (let i = 1; i <= totalPages; i++) {
-        pages.push(i)
-      }
-    } else {
-      if (currentPage <= 2) {
-        pages.push(1, 2, 3, '...', totalPages)
-      } else if (currentPage >= totalPages - 1) {
-        pages.push(1, '...', totalPages - 2, totalPages - 1, totalPages)
-      } else {
-        pages.push(1, '...', currentPage - 1, currentPage, currentPage + 1, '...', totalPages)
-      }
-    }
-    
-    return pages
-  }
-
-  const pageNumbers = generatePageNumbers()
-
   const formatDate = (dateString) => {
     if (!dateString) return 'No date'
     // Handle different date formats that might come from backend
@@ -116,45 +91,11 @@ function EventList({
       )}
       
       {/* Pagination section */}
-      {totalPages > 1 && (
-        <div className="pagination-section">
-          <div className="inline-pagination">
-            <button
-              className={`pagination-btn ${currentPage === 1 ? 'disabled' : ''}`}
-              onClick={() => onPageChange(currentPage - 1)}
-              disabled={currentPage === 1}
-              title="Previous page"
-            >
-              ‹
-            </button>
-
-            {pageNumbers.map((page, index) => (
-              page === '...' ? (
-                <span key={`ellipsis-${index}`} className="pagination-ellipsis">
-                  ...
-                </span>
-              ) : (
-                <button
-                  key={page}
-                  className={`pagination-btn page-number ${currentPage === page ? 'active' : ''}`}
-                  onClick={() => onPageChange(page)}
-                >
-                  {page}
-                </button>
-              )
-            ))}
-
-            <button
-              className={`pagination-btn ${currentPage === totalPages ? 'disabled' : ''}`}
-              onClick={() => onPageChange(currentPage + 1)}
-              disabled={currentPage === totalPages}
-              title="Next page"
-            >
-              ›
-            </button>
-          </div>
-        </div>
-      )}
+      <Pagination
+        currentPage={currentPage}
+        hasNext={hasNext}
+        onPageChange={onPageChange}
+      />
       <div className="events">
         {events.map(event => {
           const eventId = event._id || event.id
@@ -7,8 +7,9 @@ import apiService from '../api.js'
 import './EventManagement.css'
 
 function EventManagement({ onLogout, onNavigate, currentUser }) {
-  const [events, setEvents] = useState([])
-  const [allEvents, setAllEvents] = useState([]) // Keep original list for filtering
+  const [events, setEvents] = useState([]) // The current page only
+  const [hasNext, setHasNext] = useState(false)
+  const [activeQuery, setActiveQuery] = useState({}) // Filter parameters sent with every page request
   const [selected, setSelected] = useState(null)
   const [isFiltering, setIsFiltering] = useState(false)
   const [activeFilter, setActiveFilter] = useState(null)
@@ -19,7 +20,8 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
     eventName: '', 
     eventDescription: '', 
     eventAvailability: 0,
-    eventStartDate: ''
+    eventStartDate: '',
+    eventEndDate: null
   })
 
   useEffect(() => {
@@ -29,12 +31,21 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
     }
   }, [currentUser])
 
-  const loadEvents = async () => {
+  // Fetch one page of the matching events; the resource service does the filtering and paging
+  const fetchPage = async (page, query) => {
+    const data = await apiService.getEventsPage({ ...query, page: page - 1, size: itemsPerPage })
+    if (data.content.length === 0 && page > 1) {
+      // The last page emptied out (e.g. after a delete): show the one before it
+      return fetchPage(page - 1, query)
+    }
+    setEvents(data.content)
+    setHasNext(data.hasNext)
+    setCurrentPage(page)
+  }
+
+  const loadEvents = async (page = currentPage, query = activeQuery) => {
     try {
-      const data = await apiService.getAllEvents()
-      setEvents(data)
-      setAllEvents(data)
-      setActiveFilter(null)
+      await fetchPage(page, query)
     } catch (error) {
       console.error('Error loading events:', error)
     }
@@ -43,7 +54,7 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
   const loadUserRegistrations = async () => {
     try {
       if (currentUser?.customerId) {
-        const registrations = await apiService.getMyRegistrations(currentUser.customerId)
+        const registrations = await apiService.getMyRegistrations()
         setUserRegistrations(registrations)
       }
     } catch (error) {
@@ -65,7 +76,8 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
           eventName: event.eventName, 
           eventDescription: event.eventDescription, 
           eventAvailability: event.eventAvailability,
-          eventStartDate: event.eventStartDate
+          eventStartDate: event.eventStartDate,
+          eventEndDate: event.eventEndDate || null
         })
       } catch (error) {
         console.error('Error fetching event:', error)
@@ -76,7 +88,8 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
             eventName: event.eventName, 
             eventDescription: event.eventDescription, 
             eventAvailability: event.eventAvailability,
-            eventStartDate: event.eventStartDate
+            eventStartDate: event.eventStartDate,
+            eventEndDate: event.eventEndDate || null
           })
         }
       }
@@ -88,7 +101,8 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
       eventName: '', 
       eventDescription: '', 
       eventAvailability: 0,
-      eventStartDate: ''
+      eventStartDate: '',
+      eventEndDate: null
     })
   }
 
@@ -127,66 +141,46 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
     clearForm()
   }
 
-  // Pagination helper functions
-  const getPaginatedEvents = () => {
-    const startIndex = (currentPage - 1) * itemsPerPage
-    const endIndex = startIndex + itemsPerPage
-    return events.slice(startIndex, endIndex)
+  const handlePageChange = async (page) => {
+    await loadEvents(page)
+    setSelected(null) // Clear selection when changing pages
+    clearForm()
   }
 
-  const getTotalPages = () => {
-    return Math.ceil(events.length / itemsPerPage)
+  // Events starting on the given day: a [from, to) range on the (eventStartDate, _id) index
+  const dayRange = (day) => {
+    const nextDay = new Date(`${day}T00:00:00Z`)
+    nextDay.setUTCDate(nextDay.getUTCDate() + 1)
+    return { from: day, to: nextDay.toISOString().slice(0, 10) }
   }
 
-  const handlePageChange = (page) => {
-    setCurrentPage(page)
-    setSelected(null) // Clear selection when changing pages
-    clearForm()
+  // The /events query parameters for a filter chosen in EventFilter
+  const toQuery = (filterType, filterValue) => {
+    switch (filterType) {
+      case 'name':
+        return { eventName: filterValue }
+      case 'description':
+        return { eventDescription: filterValue }
+      case 'availability':
+        return { eventAvailability: parseInt(filterValue) }
+      case 'date':
+        return dayRange(filterValue)
+      case 'attributes': {
+        const { eventStartDate, ...attributes } = filterValue
+        return eventStartDate ? { ...attributes, ...dayRange(eventStartDate) } : attributes
+      }
+      default:
+        throw new Error('Unknown filter type')
+    }
   }
 
   const handleFilter = async (filterType, filterValue) => {
     setIsFiltering(true)
     try {
-      let filteredData
-      
-      switch (filterType) {
-        case 'name':
-          filteredData = allEvents.filter(event => 
-            event.eventName.toLowerCase().includes(filterValue.toLowerCase())
-          )
-          break
-        case 'description':
-          filteredData = allEvents.filter(event => 
-            event.eventDescription && event.eventDescription.toLowerCase().includes(filterValue.toLowerCase())
-          )
-          break
-        case 'availability':
-          filteredData = allEvents.filter(event => 
-            event.eventAvailability === parseInt(filterValue)
-          )
-          break
-        case 'date':
-          filteredData = allEvents.filter(event => 
-            event.eventStartDate && event.eventStartDate.includes(filterValue)
-          )
-          break
-        case 'attributes':
-          filteredData = allEvents.filter(event => {
-            return Object.entries(filterValue).every(([key, value]) => {
-              if (typeof value === 'number') {
-                return event[key] === value;
-              }
-              return event[key] && event[key].toString().toLowerCase().includes(value.toString().toLowerCase());
-            });
-          })
-          break
-        default:
-          throw new Error('Unknown filter type')
-      }
-      
-      setEvents(filteredData)
+      const query = toQuery(filterType, filterValue)
+      await fetchPage(1, query) // Start again from the first page when filtering
+      setActiveQuery(query)
       setActiveFilter({ type: filterType, value: filterValue })
-      setCurrentPage(1) // Reset to first page when filtering
       setSelected(null) // Clear selection when filtering
       clearForm()
     } catch (error) {
@@ -197,10 +191,10 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
     }
   }
 
-  const handleClearFilter = () => {
-    setEvents(allEvents)
+  const handleClearFilter = async () => {
+    await loadEvents(1, {}) // Back to the first page of the full catalog
+    setActiveQuery({})
     setActiveFilter(null)
-    setCurrentPage(1) // Reset to first page when clearing filters
     setSelected(null)
     clearForm()
   }
@@ -247,14 +241,13 @@ function EventManagement({ onLogout, onNavigate, currentUser }) {
       {/* Event list and form */}
       <div className="container">
         <EventList 
-          events={getPaginatedEvents()}
-          totalEvents={events.length}
+          events={events}
           selectedEventId={selected}
           onSelectEvent={selectEvent}
           activeFilter={activeFilter}
           currentPage={currentPage}
           itemsPerPage={itemsPerPage}
-          totalPages={getTotalPages()}
+          hasNext={hasNext}
           onPageChange={handlePageChange}
           onClearFilter={handleClearFilter}
           onRegisterForEvent={handleRegisterForEvent}
@@ -4,7 +4,6 @@ import apiService from '../api.js'
 
 function MyRegistrations({ customerId, onNavigate }) {
   const [registrations, setRegistrations] = useState([])
-  const [events, setEvents] = useState({}) // Store event details by eventId
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState(null)
 
@@ -18,21 +17,9 @@ function MyRegistrations({ customerId, onNavigate }) {
     try {
       setLoading(true)
       setError(null)
-      const myRegistrations = await apiService.getMyRegistrations(customerId)
+      // Event details come embedded in each registration, so this is a single request
+      const myRegistrations = await apiService.getMyRegistrationsWithEvents()
       setRegistrations(myRegistrations)
-      
-      // Fetch event details for each registration
-      const eventDetails = {}
-      for (const registration of myRegistrations) {
-        try {
-          const event = await apiService.getEvent(registration.eventId)
-          eventDetails[registration.eventId] = event
-        } catch (err) {
-          console.error('Failed to load event details for:', registration.eventId)
-          // Continue loading other events even if one fails
-        }
-      }
-      setEvents(eventDetails)
     } catch (error) {
       console.error('Error loading registrations:', error)
       setError('Failed to load your registrations. Please try again.')
@@ -124,11 +111,11 @@ function MyRegistrations({ customerId, onNavigate }) {
           
           <div className="registrations-grid">
             {registrations.map(registration => {
-              const event = events[registration.eventId]
+              const event = registration.event
               return (
                 <div key={registration.id} className="registration-card">
                   <div className="registration-header">
-                    <h3>{registration.eventName}</h3>
+                    <h3>{event ? event.eventName : registration.eventName}</h3>
                     <span className={`status ${registration.status}`}>
                       {registration.status}
                     </span>
@@ -138,19 +125,15 @@ function MyRegistrations({ customerId, onNavigate }) {
                     <div className="event-details">
                       <div className="detail-item">
                         <span className="label">Description:</span>
-                        <span className="value">{event.description || 'No description'}</span>
+                        <span className="value">{event.eventDescription || 'No description'}</span>
                       </div>
                       <div className="detail-item">
                         <span className="label">Date:</span>
-                        <span className="value">{formatDate(event.date)}</span>
-                      </div>
-                      <div className="detail-item">
-                        <span className="label">Location:</span>
-                        <span className="value">{event.location || 'No location specified'}</span>
+                        <span className="value">{formatDate(event.eventStartDate)}</span>
                       </div>
                       <div className="detail-item">
-                        <span className="label">Capacity:</span>
-                        <span className="value">{event.capacity || 'Unlimited'}</span>
+                        <span className="label">Seats left:</span>
+                        <span className="value">{event.eventAvailability}</span>
                       </div>
                     </div>
                   )}
@@ -1,86 +1,35 @@
 import './Pagination.css'
 
-function Pagination({ 
-  currentPage, 
-  totalPages, 
-  onPageChange, 
-  totalItems,
-  itemsPerPage 
+// Previous/next paging over a server-paged list. The resource service answers each page with
+// hasNext instead of a total count, so there are no page numbers to jump to.
+function Pagination({
+  currentPage,
+  hasNext,
+  onPageChange
 }) {
-  if (totalPages <= 1) return null //no show paginate. if only one page
-
-  const generatePageNumbers = () => {
-    const pages = []
-    const maxVisiblePages = 5
-    
-    if (totalPages <= maxVisiblePages) {
-      for (let i = 1; i <= totalPages; i++) {
-        pages.push(i)
-      }
-    } else {
-      if (currentPage <= 3) {
-        pages.push(1, 2, 3, 4, '...', totalPages)
-      } else if (currentPage >= totalPages - 2) {
-        pages.push(1, '...', totalPages - 3, totalPages - 2, totalPages - 1, totalPages)
-      } else {
-        pages.push(1, '...', currentPage - 1, currentPage, currentPage + 1, '...', totalPages)
-      }
-    }
-    
-    return pages
-  }
-
-  const getItemRange = () => {
-    const start = (currentPage - 1) * itemsPerPage + 1
-    const end = Math.min(currentPage * itemsPerPage, totalItems)
-    return { start, end }
-  }
-
-  const { start, end } = getItemRange()
-  const pageNumbers = generatePageNumbers()
+  if (currentPage === 1 && !hasNext) return null //no show paginate. if only one page
 
   return (
-    <div className="pagination-container">
-      <div className="pagination-info">
-        Showing {start} to {end} of {totalItems} customers
-      </div>
-      
-      <div className="pagination-controls">
-        {/* Previous Button */}
+    <div className="pagination-section">
+      <div className="inline-pagination">
         <button
           className={`pagination-btn ${currentPage === 1 ? 'disabled' : ''}`}
           onClick={() => onPageChange(currentPage - 1)}
           disabled={currentPage === 1}
+          title="Previous page"
         >
-          ‹ Previous
+          ‹
         </button>
 
-        {/* Page Numbers */}
-        <div className="page-numbers">
-          {pageNumbers.map((page, index) => (
-            page === '...' ? (
-              <span key={`ellipsis-${index}`} className="pagination-ellipsis">
-                ...
-              </span>
-            ) : (
-              <button
-                key={page}
-                className={`pagination-btn page-number ${currentPage === page ? 'active' : ''}`}
-                onClick={() => onPageChange(page)}
-              >
-                {page}
-              </button>
-            )
-          ))}
-        </div>
+        <span className="pagination-btn page-number active">{currentPage}</span>
 
-        {/* Next Button */}
         <button
-          className={`pagination-btn ${currentPage === totalPages ? 'disabled' : ''}`}
+          className={`pagination-btn ${!hasNext ? 'disabled' : ''}`}
           onClick={() => onPageChange(currentPage + 1)}
-          disabled={currentPage === totalPages}
+          disabled={!hasNext}
+          title="Next page"
         >
-          Next ›
+          ›
         </button>
       </div>
     </div>
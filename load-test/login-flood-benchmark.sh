@@ -0,0 +1,35 @@
+#!/bin/bash
+# Floods POST /account/token with logins and, at the same time, measures a non-login endpoint
+# (GET /account/me) to check that its tail latency stays stable while BCrypt is saturated.
+#
+# Requires both services running and an existing customer:
+#   EMAIL=alice@example.com PASSWORD=secret123 ./login-flood-benchmark.sh
+set -e
+
+ACCOUNT_URL=${ACCOUNT_URL:-http://localhost:8081/account}
+EMAIL=${EMAIL:?set EMAIL to an existing customer}
+PASSWORD=${PASSWORD:?set PASSWORD for that customer}
+FLOOD_CONCURRENCY=${FLOOD_CONCURRENCY:-500}
+CONCURRENCY=${CONCURRENCY:-50}
+DURATION=${DURATION:-30s}
+LOGIN_BODY="{\"username\":\"$EMAIL\",\"password\":\"$PASSWORD\"}"
+
+./gradlew -q installDist
+mkdir -p build
+RUN=build/install/load-test/bin/load-test
+
+TOKEN=$(curl -sf -X POST "$ACCOUNT_URL/token" -H 'Content-Type: application/json' -d "$LOGIN_BODY" \
+  | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+# Baseline without a flood
+$RUN --label me-baseline --url "$ACCOUNT_URL/me" --header "Authorization: Bearer $TOKEN" \
+  --concurrency "$CONCURRENCY" --duration "$DURATION" | tee -a build/login-flood-benchmark.ndjson
+
+# Same measurement while the login flood runs; rejected logins (429) count as errors of the flood run
+$RUN --label login-flood --url "$ACCOUNT_URL/token" --method POST --body "$LOGIN_BODY" \
+  --concurrency "$FLOOD_CONCURRENCY" --duration "$DURATION" --warmup 0s > build/login-flood.json &
+FLOOD_PID=$!
+$RUN --label me-during-login-flood --url "$ACCOUNT_URL/me" --header "Authorization: Bearer $TOKEN" \
+  --concurrency "$CONCURRENCY" --duration "$DURATION" | tee -a build/login-flood-benchmark.ndjson
+wait $FLOOD_PID
+tee -a build/login-flood-benchmark.ndjson < build/login-flood.json
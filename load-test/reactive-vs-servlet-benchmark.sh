@@ -0,0 +1,41 @@
+#!/bin/bash
+# Compares the servlet resource service against the reactive (WebFlux) build under many slow clients:
+# JVM memory and threads per connection, and p99 of ordinary requests next to them.
+#
+# Requires MongoDB on localhost:27017, the account service running, an existing customer and both jars:
+#   (cd ../resource && ./gradlew bootJar) && (cd ../resource-reactive && ./gradlew bootJar)
+#   EMAIL=alice@example.com PASSWORD=secret123 CONNECTIONS=2000 ./reactive-vs-servlet-benchmark.sh
+set -e
+
+ACCOUNT_URL=${ACCOUNT_URL:-http://localhost:8081/account}
+SERVLET_JAR=${SERVLET_JAR:-../resource/build/libs/resource-0.0.1-SNAPSHOT.jar}
+REACTIVE_JAR=${REACTIVE_JAR:-../resource-reactive/build/libs/resource-reactive-0.0.1-SNAPSHOT.jar}
+EMAIL=${EMAIL:?set EMAIL to an existing customer}
+PASSWORD=${PASSWORD:?set PASSWORD for that customer}
+CONNECTIONS=${CONNECTIONS:-2000}
+DURATION=${DURATION:-30s}
+
+./gradlew -q installDist
+mkdir -p build
+
+TOKEN=$(curl -sf -X POST "$ACCOUNT_URL/token" -H 'Content-Type: application/json' \
+  -d "{\"username\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" \
+  | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+for mode in servlet reactive; do
+  JAR=$SERVLET_JAR
+  if [ "$mode" = "reactive" ]; then
+    JAR=$REACTIVE_JAR
+  fi
+
+  java -jar "$JAR" > "build/$mode.log" 2>&1 &
+  PID=$!
+  until curl -sf http://localhost:8080/api/ > /dev/null; do sleep 1; done
+
+  java -cp 'build/install/load-test/lib/*' com.capstone.loadtest.ConnectionScalingBenchmark \
+    --label "$mode" --token "$TOKEN" --connections "$CONNECTIONS" --duration "$DURATION" \
+    | tee -a build/reactive-vs-servlet-benchmark.ndjson
+
+  kill $PID
+  wait $PID 2>/dev/null || true
+done
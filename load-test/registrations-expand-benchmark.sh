@@ -0,0 +1,26 @@
+#!/bin/bash
+# Compares "my registrations with event details" loaded as one list request plus one GET /events/{id}
+# per registration (N+1) against a single GET /registrations/customer/{id}?expand=event.
+#
+# Requires both services running and an existing customer to get a token for:
+#   EMAIL=alice@example.com PASSWORD=secret123 REGISTRATIONS=300 ./registrations-expand-benchmark.sh
+set -e
+
+ACCOUNT_URL=${ACCOUNT_URL:-http://localhost:8081/account}
+RESOURCE_URL=${RESOURCE_URL:-http://localhost:8080/api}
+EMAIL=${EMAIL:?set EMAIL to an existing customer}
+PASSWORD=${PASSWORD:?set PASSWORD for that customer}
+REGISTRATIONS=${REGISTRATIONS:-300}
+CONCURRENCY=${CONCURRENCY:-20}
+DURATION=${DURATION:-30s}
+
+./gradlew -q installDist
+mkdir -p build
+
+TOKEN=$(curl -sf -X POST "$ACCOUNT_URL/token" -H 'Content-Type: application/json' \
+  -d "{\"username\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" \
+  | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+java -cp 'build/install/load-test/lib/*' com.capstone.loadtest.RegistrationsExpandBenchmark \
+  --url "$RESOURCE_URL" --token "$TOKEN" --registrations "$REGISTRATIONS" \
+  --concurrency "$CONCURRENCY" --duration "$DURATION" | tee -a build/registrations-expand-benchmark.ndjson
@@ -0,0 +1,224 @@
+package com.capstone.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds many slow client connections open against a resource service (servlet or reactive build) and
+ * measures what they cost: JVM memory and live threads per connection, read from the service's
+ * /actuator/prometheus, and the p99 of ordinary requests sent next to them.
+ *
+ * <pre>
+ * java -cp 'build/install/load-test/lib/*' com.capstone.loadtest.ConnectionScalingBenchmark
+ *      --token &lt;jwt&gt; [--url http://localhost:8080/api] [--label servlet] [--connections 2000]
+ *      [--chunks 20] [--chunk-delay 100ms] [--probe-path /customers?page=0&amp;size=20]
+ *      [--probe-concurrency 20] [--duration 30s]
+ * </pre>
+ *
+ * Each slow client uploads a POST /customers body in --chunks pieces with --chunk-delay between them,
+ * the way a client on a poor mobile link does. The body is missing the required name, so nothing is
+ * stored and the answer is a 400 once the last chunk arrived. A blocking server keeps a request thread
+ * parked on every such upload; a non-blocking one only keeps the connection.
+ */
+public final class ConnectionScalingBenchmark {
+
+    private static final Pattern MEMORY_USED = Pattern.compile("(?m)^jvm_memory_used_bytes\\{[^}]*} ([0-9.eE+]+)$");
+    private static final Pattern LIVE_THREADS = Pattern.compile("(?m)^jvm_threads_live_threads(?:\\{[^}]*})? ([0-9.eE+]+)$");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String authorization;
+
+    private ConnectionScalingBenchmark(HttpClient client, String baseUrl, String token) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.authorization = "Bearer " + token;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("token")) {
+            System.err.println("Usage: ConnectionScalingBenchmark --token <jwt> [--url http://localhost:8080/api] [--label servlet]"
+                    + " [--connections 2000] [--chunks 20] [--chunk-delay 100ms] [--probe-path /customers?page=0&size=20]"
+                    + " [--probe-concurrency 20] [--duration 30s]");
+            System.exit(2);
+        }
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080/api");
+        String label = options.getOrDefault("label", "resource");
+        int connections = Integer.parseInt(options.getOrDefault("connections", "2000"));
+        int chunks = Integer.parseInt(options.getOrDefault("chunks", "20"));
+        Duration chunkDelay = LoadTest.parseDuration(options.getOrDefault("chunk-delay", "100ms"));
+        String probePath = options.getOrDefault("probe-path", "/customers?page=0&size=20");
+        int probeConcurrency = Integer.parseInt(options.getOrDefault("probe-concurrency", "20"));
+        Duration duration = LoadTest.parseDuration(options.getOrDefault("duration", "30s"));
+
+        // HTTP/1.1 so that every slow client holds a connection of its own
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        new ConnectionScalingBenchmark(client, baseUrl, options.get("token"))
+                .run(label, connections, chunks, chunkDelay, probePath, probeConcurrency, duration);
+    }
+
+    private void run(String label, int connections, int chunks, Duration chunkDelay, String probePath,
+                     int probeConcurrency, Duration duration) throws Exception {
+        // The probe alone first, so the slow clients' effect on its p99 can be read off directly
+        LoadRunner probe = new LoadRunner(client, probeConcurrency);
+        System.out.println(probe.run(label + "-probe-idle", () -> get(probePath), duration).toJson());
+
+        Sample baseline = sample();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong completed = new AtomicLong();
+        Sample peak;
+        LoadResult loaded;
+        try (ExecutorService slowClients = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService sampler = Executors.newSingleThreadExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                slowClients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            slowUpload(chunks, chunkDelay);
+                            completed.incrementAndGet();
+                        } catch (IOException e) {
+                            // A refused or reset connection is part of what is measured; try again
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+            var peakSample = sampler.submit(() -> {
+                Sample max = baseline;
+                while (System.nanoTime() < deadline) {
+                    Thread.sleep(1000);
+                    max = max.max(sample());
+                }
+                return max;
+            });
+            loaded = probe.run(label + "-probe-" + connections + "-slow-clients", () -> get(probePath), duration);
+            peak = peakSample.get();
+        }
+
+        long memoryPerConnection = (peak.memoryUsedBytes - baseline.memoryUsedBytes) / Math.max(connections, 1);
+        String json = loaded.toJson();
+        System.out.println(json.substring(0, json.length() - 1) + String.format(Locale.ROOT,
+                ",\"slowClients\":%d,\"slowUploadsCompleted\":%d,\"baselineMemoryBytes\":%d,\"peakMemoryBytes\":%d,"
+                        + "\"memoryPerConnectionBytes\":%d,\"baselineThreads\":%d,\"peakThreads\":%d}",
+                connections, completed.get(), baseline.memoryUsedBytes, peak.memoryUsedBytes,
+                memoryPerConnection, baseline.liveThreads, peak.liveThreads));
+    }
+
+    private void slowUpload(int chunks, Duration chunkDelay) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/customers"))
+                .timeout(Duration.ofMinutes(2))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new SlowBody(chunks, chunkDelay)))
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+    }
+
+    private Sample sample() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus")).timeout(Duration.ofSeconds(10)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IOException("GET /actuator/prometheus failed with " + response.statusCode());
+        }
+        double memory = 0;
+        Matcher matcher = MEMORY_USED.matcher(response.body());
+        while (matcher.find()) {
+            memory += Double.parseDouble(matcher.group(1));
+        }
+        Matcher threads = LIVE_THREADS.matcher(response.body());
+        return new Sample((long) memory, threads.find() ? (long) Double.parseDouble(threads.group(1)) : 0);
+    }
+
+    /**
+     * Heap plus non-heap in use and live threads at one point in time
+     */
+    private record Sample(long memoryUsedBytes, long liveThreads) {
+
+        Sample max(Sample other) {
+            return new Sample(Math.max(memoryUsedBytes, other.memoryUsedBytes), Math.max(liveThreads, other.liveThreads));
+        }
+    }
+
+    /**
+     * A JSON object without a name, handed out one chunk at a time with a pause before each chunk
+     */
+    private static final class SlowBody extends InputStream {
+
+        private final byte[][] chunks;
+        private final Duration delay;
+        private int chunk;
+        private int position;
+
+        SlowBody(int count, Duration delay) {
+            this.delay = delay;
+            this.chunks = new byte[Math.max(count, 2)][];
+            chunks[0] = "{\"companyName\":\"".getBytes(StandardCharsets.US_ASCII);
+            for (int i = 1; i < chunks.length - 1; i++) {
+                chunks[i] = "slow-client-".repeat(8).getBytes(StandardCharsets.US_ASCII);
+            }
+            chunks[chunks.length - 1] = "\"}".getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (chunk == chunks.length) {
+                return -1;
+            }
+            if (position == 0 && chunk > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while pacing the upload", e);
+                }
+            }
+            int count = Math.min(length, chunks[chunk].length - position);
+            System.arraycopy(chunks[chunk], position, buffer, offset, count);
+            position += count;
+            if (position == chunks[chunk].length) {
+                chunk++;
+                position = 0;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.capstone.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects request latencies of one worker. Not thread-safe: every worker owns its own
+ * recorder and the recorders are merged once the run is over.
+ */
+public class LatencyRecorder {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long errors;
+
+    public void record(long latencyNanos) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+    }
+
+    public void error() {
+        errors++;
+    }
+
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count + other.count);
+        }
+        System.arraycopy(other.latenciesNanos, 0, latenciesNanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in milliseconds; sorts the samples on first use
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(latenciesNanos, 0, count);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return latenciesNanos[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.capstone.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Throughput and latency percentiles of one run, printed as a single JSON line.
+ */
+public class LoadResult {
+
+    private final String label;
+    private final int concurrency;
+    private final Duration elapsed;
+    private final LatencyRecorder latencies;
+
+    public LoadResult(String label, int concurrency, Duration elapsed, LatencyRecorder latencies) {
+        this.label = label;
+        this.concurrency = concurrency;
+        this.elapsed = elapsed;
+        this.latencies = latencies;
+    }
+
+    public double throughput() {
+        return latencies.getCount() / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughputPerSec\":%.1f,"
+                        + "\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f}",
+                label, concurrency, latencies.getCount(), latencies.getErrors(), throughput(),
+                latencies.percentileMillis(50), latencies.percentileMillis(99), latencies.percentileMillis(99.9));
+    }
+}
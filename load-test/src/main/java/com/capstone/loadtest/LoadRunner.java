@@ -0,0 +1,143 @@
+package com.capstone.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop load: a fixed number of virtual-thread workers each send one request,
+ * wait for the response and immediately send the next one until the time is up.
+ */
+public class LoadRunner {
+
+    private final HttpClient client;
+    private final int concurrency;
+
+    public LoadRunner(HttpClient client, int concurrency) {
+        this.client = client;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * One unit of work, e.g. a single request or a page view made of several requests.
+     * Returns the HTTP status; anything from 400 up counts as an error.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        int execute(HttpClient client) throws IOException, InterruptedException;
+    }
+
+    /**
+     * An operation of a mixed run, picked with a probability proportional to its weight
+     */
+    public record WeightedOperation(String name, int weight, Operation operation) {
+    }
+
+    public LoadResult run(String label, Supplier<HttpRequest> requests, Duration duration) {
+        return run(label, client -> client.send(requests.get(), HttpResponse.BodyHandlers.discarding()).statusCode(), duration);
+    }
+
+    public LoadResult run(String label, Operation operation, Duration duration) {
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (operation.execute(client) >= 400) {
+                                recorder.error();
+                            } else {
+                                recorder.record(System.nanoTime() - start);
+                            }
+                        } catch (IOException e) {
+                            recorder.error();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach(total::merge);
+        return new LoadResult(label, concurrency, Duration.ofNanos(System.nanoTime() - started), total);
+    }
+
+    /**
+     * Like {@link #run(String, Operation, Duration)}, but every iteration picks one of the operations by
+     * weight, so they compete for the server the way real traffic does. Returns one result per operation,
+     * labelled {@code label/name}, with its own latencies and throughput.
+     */
+    public List<LoadResult> runMix(String label, List<WeightedOperation> mix, Duration duration) {
+        int totalWeight = mix.stream().mapToInt(WeightedOperation::weight).sum();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<LatencyRecorder[]> recorders = new ArrayList<>();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                LatencyRecorder[] workerRecorders = new LatencyRecorder[mix.size()];
+                for (int op = 0; op < mix.size(); op++) {
+                    workerRecorders[op] = new LatencyRecorder();
+                }
+                recorders.add(workerRecorders);
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int op = pick(mix, ThreadLocalRandom.current().nextInt(totalWeight));
+                        LatencyRecorder recorder = workerRecorders[op];
+                        long start = System.nanoTime();
+                        try {
+                            if (mix.get(op).operation().execute(client) >= 400) {
+                                recorder.error();
+                            } else {
+                                recorder.record(System.nanoTime() - start);
+                            }
+                        } catch (IOException e) {
+                            recorder.error();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        List<LoadResult> results = new ArrayList<>();
+        for (int op = 0; op < mix.size(); op++) {
+            LatencyRecorder total = new LatencyRecorder();
+            for (LatencyRecorder[] workerRecorders : recorders) {
+                total.merge(workerRecorders[op]);
+            }
+            results.add(new LoadResult(label + "/" + mix.get(op).name(), concurrency, elapsed, total));
+        }
+        return results;
+    }
+
+    private static int pick(List<WeightedOperation> mix, int ticket) {
+        for (int op = 0; op < mix.size() - 1; op++) {
+            ticket -= mix.get(op).weight();
+            if (ticket < 0) {
+                return op;
+            }
+        }
+        return mix.size() - 1;
+    }
+}
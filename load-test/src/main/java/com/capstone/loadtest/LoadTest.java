@@ -0,0 +1,89 @@
+package com.capstone.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Command line entry point.
+ *
+ * <pre>
+ * load-test --url http://localhost:8080/api/customers?page=0&amp;size=20 --concurrency 1000 --duration 30s
+ *           [--warmup 5s] [--label name] [--header "Authorization: Bearer ..."]
+ *           [--method POST --body '{"username":"a@b.c","password":"secret"}']
+ * </pre>
+ *
+ * Prints one JSON line with throughput and p50/p99/p99.9 latency.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> headers = new ArrayList<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--header")) {
+                headers.add(args[i + 1]);
+            } else {
+                options.put(args[i].substring(2), args[i + 1]);
+            }
+        }
+        if (!options.containsKey("url")) {
+            System.err.println("Usage: load-test --url <url> [--concurrency n] [--duration 30s] [--warmup 5s] [--label name]"
+                    + " [--header 'Name: value'] [--method GET|POST|PUT] [--body json]");
+            System.exit(2);
+        }
+
+        URI url = URI.create(options.get("url"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "30s"));
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "5s"));
+        String label = options.getOrDefault("label", url.getPath());
+
+        String method = options.getOrDefault("method", "GET");
+        String body = options.get("body");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        for (String header : headers) {
+            int colon = header.indexOf(':');
+            builder.header(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+        }
+        HttpRequest request = builder.build();
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LoadRunner runner = new LoadRunner(client, concurrency);
+
+        if (!warmup.isZero()) {
+            runner.run(label, () -> request, warmup);
+        }
+        System.out.println(runner.run(label, () -> request, duration).toJson());
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,165 @@
+package com.capstone.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares loading "my registrations with event details" the old way (list the registrations, then one
+ * GET /events/{id} per registration, as MyRegistrations.jsx did) against one ?expand=event request.
+ *
+ * <pre>
+ * java -cp 'build/install/load-test/lib/*' com.capstone.loadtest.RegistrationsExpandBenchmark
+ *      --url http://localhost:8080/api --token &lt;jwt&gt; [--registrations 300] [--concurrency 20]
+ *      [--duration 30s] [--warmup 5s]
+ * </pre>
+ *
+ * Seeds one customer with the given number of registrations (each for its own event) through the
+ * bulk endpoints, prints one JSON line per variant and deletes the seeded data again.
+ */
+public final class RegistrationsExpandBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final Pattern EVENT_ID = Pattern.compile("\"eventId\":\"([^\"]+)\"");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String authorization;
+
+    private RegistrationsExpandBenchmark(HttpClient client, String baseUrl, String token) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.authorization = "Bearer " + token;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("token")) {
+            System.err.println("Usage: RegistrationsExpandBenchmark --token <jwt> [--url http://localhost:8080/api]"
+                    + " [--registrations 300] [--concurrency 20] [--duration 30s] [--warmup 5s]");
+            System.exit(2);
+        }
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080/api");
+        int registrations = Integer.parseInt(options.getOrDefault("registrations", "300"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "20"));
+        Duration duration = LoadTest.parseDuration(options.getOrDefault("duration", "30s"));
+        Duration warmup = LoadTest.parseDuration(options.getOrDefault("warmup", "5s"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        new RegistrationsExpandBenchmark(client, baseUrl, options.get("token"))
+                .run(registrations, concurrency, duration, warmup);
+    }
+
+    private void run(int registrations, int concurrency, Duration duration, Duration warmup) throws Exception {
+        String customerId = "load-test-" + UUID.randomUUID();
+        List<String> eventIds = seedEvents(registrations);
+        List<String> registrationIds = seedRegistrations(customerId, eventIds);
+        try {
+            LoadRunner runner = new LoadRunner(client, concurrency);
+            LoadRunner.Operation nPlusOne = c -> nPlusOne(customerId);
+            LoadRunner.Operation expand = c -> send(get("/registrations/customer/" + customerId + "?expand=event")).statusCode();
+
+            String suffix = "-" + registrations;
+            if (!warmup.isZero()) {
+                runner.run("warmup", nPlusOne, warmup);
+                runner.run("warmup", expand, warmup);
+            }
+            System.out.println(runner.run("registrations-n-plus-one" + suffix, nPlusOne, duration).toJson());
+            System.out.println(runner.run("registrations-expand" + suffix, expand, duration).toJson());
+        } finally {
+            post("/registrations/bulk/delete", ndjsonIds(registrationIds));
+            post("/events/bulk/delete", ndjsonIds(eventIds));
+        }
+    }
+
+    private int nPlusOne(String customerId) throws IOException, InterruptedException {
+        HttpResponse<String> list = send(get("/registrations/customer/" + customerId));
+        if (list.statusCode() >= 400) {
+            return list.statusCode();
+        }
+        int status = list.statusCode();
+        for (String eventId : matches(EVENT_ID, list.body())) {
+            status = Math.max(status, send(get("/events/" + eventId)).statusCode());
+        }
+        return status;
+    }
+
+    private List<String> seedEvents(int count) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"eventName\":\"Load test event ").append(i)
+                    .append("\",\"eventDescription\":\"Seeded by RegistrationsExpandBenchmark\"")
+                    .append(",\"eventAvailability\":10,\"eventStartDate\":\"2030-01-01\"}\n");
+        }
+        return matches(ID, post("/events/bulk", body.toString()));
+    }
+
+    private List<String> seedRegistrations(String customerId, List<String> eventIds) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (String eventId : eventIds) {
+            body.append("{\"customerId\":\"").append(customerId)
+                    .append("\",\"eventId\":\"").append(eventId)
+                    .append("\",\"status\":\"registered\"}\n");
+        }
+        return matches(ID, post("/registrations/bulk", body.toString()));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private String post(String path, String ndjson) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(path)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson))
+                .build());
+        if (response.statusCode() >= 400) {
+            throw new IOException("POST " + path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String ndjsonIds(List<String> ids) {
+        StringBuilder body = new StringBuilder();
+        for (String id : ids) {
+            body.append('"').append(id).append("\"\n");
+        }
+        return body.toString();
+    }
+
+    private static List<String> matches(Pattern pattern, String json) {
+        List<String> values = new ArrayList<>();
+        Matcher matcher = pattern.matcher(json);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+}
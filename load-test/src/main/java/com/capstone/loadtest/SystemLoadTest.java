@@ -0,0 +1,286 @@
+package com.capstone.loadtest;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test of the whole system that needs nothing but the two service jars: starts an
+ * in-memory Mongo server (mongo-java-server), the resource and account services against it, seeds
+ * customers through /account/register and events through /events/bulk, and then runs the user scenarios.
+ *
+ * <pre>
+ * java -cp 'build/install/load-test/lib/*' com.capstone.loadtest.SystemLoadTest
+ *      [--resource-jar ../resource/build/libs/resource-0.0.1-SNAPSHOT.jar]
+ *      [--account-jar ../account-service/build/libs/account-service-0.0.1-SNAPSHOT.jar]
+ *      [--customers 200] [--events 500] [--concurrency 50] [--duration 30s] [--warmup 10s]
+ *      [--mix login=5,events=55,register=10,my-registrations=30] [--bcrypt-strength 10]
+ *      [--report build/system-load-test.json]
+ * </pre>
+ *
+ * Scenarios: login (POST /account/token), events (GET /events, a random page of 20), register
+ * (POST /registrations for a random event) and my-registrations (GET /registrations/me), each as a
+ * random seeded customer. Every scenario runs alone and then all together in the --mix proportions.
+ * The report is one JSON document with throughput and p50/p99/p99.9 per scenario; it is also printed.
+ * Rate limiting is switched off, since all load comes from one address.
+ */
+public final class SystemLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern CUSTOMER_ID = Pattern.compile("\"customerId\":\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_CONCURRENCY = 16;
+
+    private final HttpClient client;
+    private final String resourceUrl;
+    private final String accountUrl;
+    private final List<SeededCustomer> customers = new ArrayList<>();
+    private final List<String> eventIds = new ArrayList<>();
+
+    private SystemLoadTest(HttpClient client, String resourceUrl, String accountUrl) {
+        this.client = client;
+        this.resourceUrl = resourceUrl;
+        this.accountUrl = accountUrl;
+    }
+
+    private record SeededCustomer(String email, String password, String token, String customerId) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        Path resourceJar = Path.of(options.getOrDefault("resource-jar", "../resource/build/libs/resource-0.0.1-SNAPSHOT.jar"));
+        Path accountJar = Path.of(options.getOrDefault("account-jar", "../account-service/build/libs/account-service-0.0.1-SNAPSHOT.jar"));
+        int resourcePort = Integer.parseInt(options.getOrDefault("resource-port", "8080"));
+        int accountPort = Integer.parseInt(options.getOrDefault("account-port", "8081"));
+        int customerCount = Integer.parseInt(options.getOrDefault("customers", "200"));
+        int eventCount = Integer.parseInt(options.getOrDefault("events", "500"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        Duration duration = LoadTest.parseDuration(options.getOrDefault("duration", "30s"));
+        Duration warmup = LoadTest.parseDuration(options.getOrDefault("warmup", "10s"));
+        String mix = options.getOrDefault("mix", "login=5,events=55,register=10,my-registrations=30");
+        String bcryptStrength = options.getOrDefault("bcrypt-strength", "10");
+        Path report = Path.of(options.getOrDefault("report", "build/system-load-test.json"));
+        for (Path jar : List.of(resourceJar, accountJar)) {
+            if (!Files.isRegularFile(jar)) {
+                System.err.println("Missing " + jar + "; build it with ./gradlew bootJar or pass --resource-jar/--account-jar");
+                System.exit(2);
+            }
+        }
+
+        Path logs = report.toAbsolutePath().getParent();
+        Files.createDirectories(logs);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String resourceUrl = "http://localhost:" + resourcePort + "/api";
+        String accountUrl = "http://localhost:" + accountPort + "/account";
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        String mongoUri = mongo.bindAndGetConnectionString() + "/capstone";
+        try (ServiceProcess resource = ServiceProcess.start("resource", resourceJar, List.of(
+                     "server.port=" + resourcePort,
+                     "spring.data.mongodb.uri=" + mongoUri,
+                     "migrations.event-dates.enabled=false",
+                     "migrations.document-versions.enabled=false",
+                     "rate-limit.routes=* /** - -"), logs.resolve("system-load-test-resource.log"));
+             ServiceProcess account = ServiceProcess.start("account-service", accountJar, List.of(
+                     "server.port=" + accountPort,
+                     "data.service.url=" + resourceUrl,
+                     "security.bcrypt.strength=" + bcryptStrength), logs.resolve("system-load-test-account.log"))) {
+            resource.awaitReady(client, URI.create(resourceUrl + "/"), Duration.ofMinutes(2));
+            account.awaitReady(client, URI.create(accountUrl + "/"), Duration.ofMinutes(2));
+
+            SystemLoadTest test = new SystemLoadTest(client, resourceUrl, accountUrl);
+            test.seedCustomers(customerCount);
+            test.seedEvents(eventCount);
+            String json = test.run(parseMix(mix, test.scenarios()), concurrency, duration, warmup, customerCount, eventCount);
+            Files.writeString(report, json + "\n");
+            System.out.println(json);
+        } finally {
+            mongo.shutdown();
+        }
+    }
+
+    private String run(List<LoadRunner.WeightedOperation> mix, int concurrency, Duration duration, Duration warmup,
+                       int customerCount, int eventCount) {
+        LoadRunner runner = new LoadRunner(client, concurrency);
+        if (!warmup.isZero()) {
+            runner.runMix("warmup", mix, warmup);
+        }
+        List<LoadResult> results = new ArrayList<>();
+        for (LoadRunner.WeightedOperation scenario : mix) {
+            results.add(runner.run(scenario.name(), scenario.operation(), duration));
+        }
+        results.addAll(runner.runMix("mix", mix, duration));
+
+        StringBuilder json = new StringBuilder(String.format(Locale.ROOT,
+                "{\"customers\":%d,\"events\":%d,\"concurrency\":%d,\"durationSeconds\":%d,\"scenarios\":[",
+                customerCount, eventCount, concurrency, duration.toSeconds()));
+        for (int i = 0; i < results.size(); i++) {
+            json.append(i == 0 ? "" : ",").append(results.get(i).toJson());
+        }
+        return json.append("]}").toString();
+    }
+
+    private Map<String, LoadRunner.Operation> scenarios() {
+        int pages = Math.max(1, (eventIds.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+        Map<String, LoadRunner.Operation> scenarios = new HashMap<>();
+        scenarios.put("login", c -> {
+            SeededCustomer customer = randomCustomer();
+            return send(HttpRequest.newBuilder(URI.create(accountUrl + "/token"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"" + customer.email() + "\",\"password\":\"" + customer.password() + "\"}"))
+                    .build()).statusCode();
+        });
+        scenarios.put("events", c -> send(resource("/events?page=" + ThreadLocalRandom.current().nextInt(pages)
+                + "&size=" + PAGE_SIZE, randomCustomer()).GET().build()).statusCode());
+        scenarios.put("register", c -> {
+            SeededCustomer customer = randomCustomer();
+            String eventId = eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size()));
+            return send(resource("/registrations", customer)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"customerId\":\"" + customer.customerId()
+                            + "\",\"eventId\":\"" + eventId + "\",\"status\":\"registered\"}"))
+                    .build()).statusCode();
+        });
+        scenarios.put("my-registrations", c -> send(resource("/registrations/me", randomCustomer()).GET().build()).statusCode());
+        return scenarios;
+    }
+
+    static List<LoadRunner.WeightedOperation> parseMix(String mix, Map<String, LoadRunner.Operation> scenarios) {
+        List<LoadRunner.WeightedOperation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            LoadRunner.Operation operation = scenarios.get(parts[0]);
+            if (parts.length != 2 || operation == null) {
+                throw new IllegalArgumentException("--mix entries must be scenario=weight with a scenario of "
+                        + scenarios.keySet() + ": " + entry.trim());
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                operations.add(new LoadRunner.WeightedOperation(parts[0], weight, operation));
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no scenario with a positive weight: " + mix);
+        }
+        return operations;
+    }
+
+    /**
+     * Sign up the customers through the account service, as real users do, and look up each one's
+     * customer ID with /me. Signups run a few at a time so the password hashing queue is not overrun.
+     */
+    private void seedCustomers(int count) throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<Future<SeededCustomer>> seeded = new ArrayList<>();
+        try (ExecutorService seeders = Executors.newFixedThreadPool(SEED_CONCURRENCY, Thread.ofVirtual().factory())) {
+            for (int i = 0; i < count; i++) {
+                String email = "load-test-" + run + "-" + i + "@example.com";
+                String password = "password-" + i;
+                seeded.add(seeders.submit(() -> seedCustomer(email, password)));
+            }
+        }
+        for (Future<SeededCustomer> customer : seeded) {
+            customers.add(customer.get());
+        }
+    }
+
+    private SeededCustomer seedCustomer(String email, String password) throws IOException, InterruptedException {
+        HttpRequest signup = HttpRequest.newBuilder(URI.create(accountUrl + "/register"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        HttpResponse<String> response = send(signup);
+        while (response.statusCode() == 429) {
+            Thread.sleep(100);
+            response = send(signup);
+        }
+        String token = extract(TOKEN, response, "POST /account/register");
+        HttpResponse<String> me = send(HttpRequest.newBuilder(URI.create(accountUrl + "/me"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build());
+        return new SeededCustomer(email, password, token, extract(CUSTOMER_ID, me, "GET /account/me"));
+    }
+
+    /**
+     * Events with more seats than the register scenario can take, starting on consecutive days
+     */
+    private void seedEvents(int count) throws IOException, InterruptedException {
+        LocalDate start = LocalDate.now().plusDays(30);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"eventName\":\"Load test event ").append(i)
+                    .append("\",\"eventDescription\":\"Seeded by SystemLoadTest\"")
+                    .append(",\"eventAvailability\":1000000,\"eventStartDate\":\"").append(start.plusDays(i % 365))
+                    .append("\"}\n");
+        }
+        HttpResponse<String> response = send(resource("/events/bulk", customers.get(0))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+        if (response.statusCode() >= 400) {
+            throw new IOException("POST /events/bulk failed with " + response.statusCode() + ": " + response.body());
+        }
+        Matcher matcher = ID.matcher(response.body());
+        while (matcher.find()) {
+            eventIds.add(matcher.group(1));
+        }
+        if (eventIds.size() != count) {
+            throw new IOException("Seeded " + eventIds.size() + " of " + count + " events: " + response.body());
+        }
+    }
+
+    private SeededCustomer randomCustomer() {
+        return customers.get(ThreadLocalRandom.current().nextInt(customers.size()));
+    }
+
+    private HttpRequest.Builder resource(String path, SeededCustomer customer) {
+        return HttpRequest.newBuilder(URI.create(resourceUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + customer.token());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String extract(Pattern pattern, HttpResponse<String> response, String call) throws IOException {
+        Matcher matcher = pattern.matcher(response.body());
+        if (response.statusCode() >= 400 || !matcher.find()) {
+            throw new IOException(call + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+}
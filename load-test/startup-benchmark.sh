@@ -0,0 +1,76 @@
+#!/bin/bash
+# Time to ready and resident memory of the resource and account services per startup mode:
+#   jar      java -jar on the boot jar
+#   cds      extracted jar with the AppCDS archive (./gradlew cdsArchive)
+#   aot-cds  the same with Spring AOT bean definitions (./gradlew cdsArchive -Paot)
+#   native   GraalVM native image, only if one was built with ./gradlew nativeCompile -Paot
+# The jar modes are built here; each mode is started RUNS times and every start is one NDJSON line in
+# build/startup-benchmark.ndjson. Ready means the service root answers 200; RSS is read right after.
+#
+# Requires MongoDB on localhost:27017 (also for the resource service's CDS training run):
+#   RUNS=5 ./startup-benchmark.sh
+set -e
+
+RUNS=${RUNS:-5}
+OUT=build/startup-benchmark.ndjson
+
+mkdir -p build/startup
+: > "$OUT"
+
+now_ms() {
+  date +%s%3N
+}
+
+# $1 service, $2 mode, $3 ready URL, rest: command line
+measure() {
+  local service=$1 mode=$2 url=$3
+  shift 3
+  for run in $(seq 1 "$RUNS"); do
+    local start
+    start=$(now_ms)
+    "$@" > "build/startup/$service-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -sf "$url" > /dev/null; do
+      if ! kill -0 $pid 2>/dev/null; then
+        echo "$service ($mode) exited during startup, see build/startup/$service-$mode.log" >&2
+        exit 1
+      fi
+      sleep 0.05
+    done
+    local ready=$(( $(now_ms) - start ))
+    local rss_kb
+    rss_kb=$(ps -o rss= -p $pid | tr -d ' ')
+    # Spring's own figure, without JVM boot and the first request
+    local started
+    started=$(sed -nE 's/.*Started [A-Za-z]+ in ([0-9.]+) seconds.*/\1/p' "build/startup/$service-$mode.log" | head -1)
+    kill $pid
+    wait $pid 2>/dev/null || true
+    echo "{\"service\":\"$service\",\"mode\":\"$mode\",\"run\":$run,\"readyMs\":$ready,\"startedSeconds\":${started:-null},\"rssMb\":$(( rss_kb / 1024 ))}" \
+      | tee -a "$OUT"
+  done
+}
+
+# $1 service dir, $2 ready URL
+benchmark() {
+  local service=$1 url=$2
+  local jar=$service-0.0.1-SNAPSHOT.jar
+  local copy=build/startup/$service
+
+  (cd "../$service" && ./gradlew -q cdsArchive)
+  rm -rf "$copy-cds" && cp -r "../$service/build/fast-startup" "$copy-cds"
+  cp "../$service/build/libs/$jar" "$copy.jar"
+  (cd "../$service" && ./gradlew -q cdsArchive -Paot)
+  rm -rf "$copy-aot-cds" && cp -r "../$service/build/fast-startup" "$copy-aot-cds"
+
+  measure "$service" jar "$url" java -jar "$copy.jar" --spring.profiles.active=fast-startup
+  measure "$service" cds "$url" java -XX:SharedArchiveFile="$copy-cds/application.jsa" \
+    -jar "$copy-cds/$jar" --spring.profiles.active=fast-startup
+  measure "$service" aot-cds "$url" java -XX:SharedArchiveFile="$copy-aot-cds/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$copy-aot-cds/$jar" --spring.profiles.active=fast-startup
+  if [ -x "../$service/build/native/nativeCompile/$service" ]; then
+    measure "$service" native "$url" "../$service/build/native/nativeCompile/$service" --spring.profiles.active=fast-startup
+  fi
+}
+
+benchmark resource http://localhost:8080/api/
+benchmark account-service http://localhost:8081/account/
@@ -0,0 +1,22 @@
+#!/bin/bash
+# End-to-end load test of both services on an in-memory MongoDB: builds the jars, seeds customers and
+# events, runs login / event paging / registration / my-registrations alone and mixed, and writes
+# throughput and p50/p99/p99.9 per scenario to build/system-load-test.json. Needs no running services
+# or database; ports 8080 and 8081 must be free.
+#   CUSTOMERS=200 EVENTS=500 CONCURRENCY=50 DURATION=30s ./system-load-test.sh
+set -e
+
+CUSTOMERS=${CUSTOMERS:-200}
+EVENTS=${EVENTS:-500}
+CONCURRENCY=${CONCURRENCY:-50}
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+MIX=${MIX:-login=5,events=55,register=10,my-registrations=30}
+
+(cd ../resource && ./gradlew -q bootJar)
+(cd ../account-service && ./gradlew -q bootJar)
+./gradlew -q installDist
+
+java -cp 'build/install/load-test/lib/*' com.capstone.loadtest.SystemLoadTest \
+  --customers "$CUSTOMERS" --events "$EVENTS" --concurrency "$CONCURRENCY" \
+  --duration "$DURATION" --warmup "$WARMUP" --mix "$MIX" --report build/system-load-test.json
@@ -0,0 +1,33 @@
+#!/bin/bash
+# Compares the resource service on the default Tomcat platform-thread pool against the
+# virtual-threads profile, under the same high-concurrency load.
+#
+# Requires MongoDB on localhost:27017, the service jar  (cd ../resource && ./gradlew bootJar)
+# and a token for the customer list, e.g. from POST /account/token:  TOKEN=... ./virtual-threads-benchmark.sh
+set -e
+
+JAR=${JAR:-../resource/build/libs/resource-0.0.1-SNAPSHOT.jar}
+URL=${URL:-http://localhost:8080/api/customers?page=0&size=20}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30s}
+TOKEN=${TOKEN:?set TOKEN to a JWT accepted by the resource service}
+
+./gradlew -q installDist
+mkdir -p build
+
+for mode in platform-threads virtual-threads; do
+  PROFILE_ARG=""
+  if [ "$mode" = "virtual-threads" ]; then
+    PROFILE_ARG="--spring.profiles.active=virtual-threads"
+  fi
+
+  java -jar "$JAR" $PROFILE_ARG > "build/$mode.log" 2>&1 &
+  PID=$!
+  until curl -sf http://localhost:8080/api/ > /dev/null; do sleep 1; done
+
+  build/install/load-test/bin/load-test --label "$mode" --url "$URL" --header "Authorization: Bearer $TOKEN" \
+    --concurrency "$CONCURRENCY" --duration "$DURATION" | tee -a build/virtual-threads-benchmark.ndjson
+
+  kill $PID
+  wait $PID 2>/dev/null || true
+done
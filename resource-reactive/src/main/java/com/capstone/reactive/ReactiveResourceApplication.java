@@ -0,0 +1,22 @@
+package com.capstone.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive variant of the resource service: the same API on WebFlux and the reactive Mongo driver.
+ * com.capstone.security is scanned for the JWT verifier shared with the servlet build, and
+ * com.capstone.domain for the documents, so their indexes are created at startup.
+ */
+@SpringBootApplication(scanBasePackages = {"com.capstone.reactive", "com.capstone.security"})
+@EnableReactiveMongoRepositories(basePackages = "com.capstone.reactive.repository")
+@EntityScan("com.capstone.domain")
+public class ReactiveResourceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveResourceApplication.class, args);
+	}
+
+}
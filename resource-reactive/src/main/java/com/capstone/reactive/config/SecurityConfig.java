@@ -0,0 +1,59 @@
+package com.capstone.reactive.config;
+
+import com.capstone.reactive.security.JwtAuthenticationWebFilter;
+import com.capstone.security.JwtTokenUtil;
+import com.capstone.security.ServiceKey;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(Arrays.asList("http://localhost:5173", "http://127.0.0.1:5173"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http, JwtTokenUtil jwtTokenUtil, ServiceKey serviceKey) {
+        return http
+            .csrf(csrf -> csrf.disable())
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .httpBasic(basic -> basic.disable())
+            .formLogin(form -> form.disable())
+            // Stateless: the token is checked on every request, nothing is kept between them
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authorizeExchange(authz -> authz
+                .pathMatchers("/").permitAll()
+                .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                // Return or replace the password hash: account service only
+                .pathMatchers(HttpMethod.GET, "/customers/lookup").hasAuthority(ServiceKey.ROLE)
+                .pathMatchers(HttpMethod.PUT, "/customers/*/password").hasAuthority(ServiceKey.ROLE)
+                .pathMatchers(HttpMethod.POST, "/customers").permitAll()
+                .anyExchange().authenticated()
+            )
+            .addFilterAt(new JwtAuthenticationWebFilter(jwtTokenUtil, serviceKey), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.capstone.reactive.controller;
+
+import com.capstone.domain.Customer;
+import com.capstone.dto.PageParams;
+import com.capstone.reactive.service.CustomerService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reactive mirror of the servlet CustomerController (bulk import and PATCH are servlet-only)
+ */
+@RestController
+@RequestMapping("/customers")
+public class CustomerController {
+
+    private final CustomerService customerService;
+
+    public CustomerController(CustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    /**
+     * Same filters, paging and ?fields= as the servlet build; an unpaged list is streamed from the cursor
+     */
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllCustomers(@RequestParam Map<String, String> params) {
+        PageParams paging = PageParams.from(params);
+        if (paging == null) {
+            return Mono.just(ResponseEntity.ok(customerService.findCustomers(params)));
+        }
+        return customerService.findCustomers(params, paging).map(ResponseEntity::ok);
+    }
+
+    /**
+     * NDJSON stream with backpressure: the cursor is only read as fast as the client takes the lines
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Customer> streamCustomers(@RequestParam Map<String, String> params) {
+        return customerService.streamCustomers(params);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Customer> exportCustomers(@RequestParam Map<String, String> params) {
+        return streamCustomers(params);
+    }
+
+    @GetMapping("/lookup")
+    public Mono<ResponseEntity<Customer>> getCustomerByEmail(@RequestParam("email") String email) {
+        return customerService.getCustomerByEmail(email)
+                .map(customer -> ETags.ok(customer.getVersion()).body(customer))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Customer>> getCustomer(@PathVariable String id) {
+        return customerService.getCustomerById(id)
+                .map(customer -> ETags.ok(customer.getVersion()).body(customer))
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> addCustomer(@RequestBody Customer newCustomer, UriComponentsBuilder uriBuilder) {
+        if (newCustomer.getName() == null || newCustomer.getEmail() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return customerService.createCustomer(newCustomer)
+                .<ResponseEntity<?>>map(created -> {
+                    // Signup is open, so the answer must not echo the hash that was sent
+                    created.setPassword(null);
+                    return ResponseEntity
+                            .created(uriBuilder.path("/customers/{id}").buildAndExpand(created.getId()).toUri())
+                            .eTag(ETags.of(created.getVersion()))
+                            .body(created);
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "A customer with this email already exists"))));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateCustomer(@RequestBody Customer customer, @PathVariable String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!Objects.equals(customer.getId(), id) || customer.getName() == null || customer.getEmail() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return customerService.updateCustomer(customer, id, ETags.expectedVersion(ifMatch))
+                .<ResponseEntity<?>>map(updated -> ETags.ok(updated.getVersion()).build())
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()))
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "A customer with this email already exists"))));
+    }
+
+    /**
+     * Replace the password hash; needs the account service's key and a well-formed BCrypt hash
+     */
+    @PutMapping("/{id}/password")
+    public Mono<ResponseEntity<?>> updatePassword(@PathVariable String id, @RequestBody Map<String, String> body) {
+        String password = body.get("password");
+        if (password == null || !CustomerService.BCRYPT_HASH.matcher(password).matches()) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "password must be a BCrypt hash")));
+        }
+        return customerService.updatePassword(id, password)
+                .map(updated -> updated ? ResponseEntity.ok().build() : ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCustomer(@PathVariable String id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return customerService.deleteCustomer(id, ETags.expectedVersion(ifMatch))
+                .map(deleted -> deleted ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build()));
+    }
+}
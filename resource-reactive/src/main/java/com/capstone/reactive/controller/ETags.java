@@ -0,0 +1,47 @@
+package com.capstone.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Document-version ETags, as in the servlet build. WebFlux answers a matching If-None-Match with
+ * 304 before encoding the body. Streamed lists carry no ETag: hashing them would mean buffering
+ * the whole list, which is what streaming avoids.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    static ResponseEntity.BodyBuilder ok(Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        return version == null ? builder : builder.eTag(of(version));
+    }
+
+    /**
+     * The version a PUT/DELETE must still find, from If-Match. Absent or * means unconditional.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            // Compressed responses carry the weak form; the version behind it is still exact
+            value = value.substring(2);
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match any version");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.capstone.reactive.controller;
+
+import com.capstone.domain.Event;
+import com.capstone.dto.PageParams;
+import com.capstone.reactive.service.EventService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reactive mirror of the servlet EventController (bulk writes, PATCH and the event cache are servlet-only)
+ */
+@RestController
+@RequestMapping("/events")
+public class EventController {
+
+    private final EventService eventService;
+
+    public EventController(EventService eventService) {
+        this.eventService = eventService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllEvents(@RequestParam Map<String, String> params) {
+        PageParams paging = PageParams.from(params);
+        if (paging == null) {
+            Flux<Map<String, Object>> projected = eventService.findEventFields(params);
+            return Mono.just(ResponseEntity.ok(projected != null ? projected : eventService.findEvents(params)));
+        }
+        return eventService.findEvents(params, paging).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Event> streamEvents(@RequestParam Map<String, String> params) {
+        return eventService.findEvents(params);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Event> exportEvents(@RequestParam Map<String, String> params) {
+        return streamEvents(params);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Event>> getEventById(@PathVariable("id") String id) {
+        return eventService.getEventById(id)
+                .map(event -> ETags.ok(event.getVersion()).body(event))
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createEvent(@RequestBody Event newEvent, UriComponentsBuilder uriBuilder) {
+        String error = EventService.validate(newEvent);
+        if (error != null) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", error)));
+        }
+        return eventService.createEvent(newEvent)
+                .map(created -> ResponseEntity
+                        .created(uriBuilder.path("/events/{id}").buildAndExpand(created.getId()).toUri())
+                        .eTag(ETags.of(created.getVersion()))
+                        .body(created));
+    }
+
+    /**
+     * Replace an event; with If-Match only if it is still at that version
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateEvent(@RequestBody Event event, @PathVariable("id") String id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!Objects.equals(event.getId(), id) || EventService.validate(event) != null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return eventService.updateEvent(event, id, ETags.expectedVersion(ifMatch))
+                .<ResponseEntity<?>>map(updated -> ETags.ok(updated.getVersion()).build())
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteEvent(@PathVariable("id") String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return eventService.deleteEvent(id, ETags.expectedVersion(ifMatch))
+                .map(deleted -> deleted ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build()));
+    }
+}
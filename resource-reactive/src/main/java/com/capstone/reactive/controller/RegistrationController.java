@@ -0,0 +1,146 @@
+package com.capstone.reactive.controller;
+
+import com.capstone.domain.Registration;
+import com.capstone.dto.PageParams;
+import com.capstone.reactive.service.RegistrationService;
+import com.capstone.security.JwtPrincipal;
+import com.capstone.service.EventFullException;
+import com.capstone.service.EventNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reactive mirror of the servlet RegistrationController (bulk writes and PATCH are servlet-only)
+ */
+@RestController
+@RequestMapping("/registrations")
+public class RegistrationController {
+
+    private final RegistrationService registrationService;
+
+    public RegistrationController(RegistrationService registrationService) {
+        this.registrationService = registrationService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllRegistrations(@RequestParam Map<String, String> params) {
+        PageParams paging = PageParams.from(params);
+        if (paging == null) {
+            Flux<Map<String, Object>> projected = registrationService.findRegistrationFields(params);
+            return Mono.just(ResponseEntity.ok(projected != null ? projected : registrationService.findRegistrations(params)));
+        }
+        return registrationService.findRegistrations(params, paging).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Registration> streamRegistrations(@RequestParam Map<String, String> params) {
+        return registrationService.findRegistrations(params);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Registration> exportRegistrations(@RequestParam Map<String, String> params) {
+        return streamRegistrations(params);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Registration>> getRegistrationById(@PathVariable("id") String id) {
+        return registrationService.getRegistrationById(id)
+                .map(registration -> ETags.ok(registration.getVersion()).body(registration))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * A customer's registrations; with ?expand=event each one carries its event, fetched in the same query
+     */
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<?> getRegistrationsByCustomerId(@PathVariable("customerId") String customerId,
+                                                          @RequestParam(name = "expand", required = false) String expand) {
+        if (expand != null && !"event".equals(expand)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported expand value: " + expand));
+        }
+        if (expand != null) {
+            return ResponseEntity.ok(registrationService.getRegistrationsWithEventsByCustomerId(customerId));
+        }
+        return ResponseEntity.ok(registrationService.getRegistrationsByCustomerId(customerId));
+    }
+
+    /**
+     * The caller's own registrations, by the customerId in their token
+     */
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyRegistrations(@AuthenticationPrincipal JwtPrincipal principal,
+                                                @RequestParam(name = "expand", required = false) String expand) {
+        if (principal == null || principal.customerId() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Token carries no customerId, sign in again"));
+        }
+        return getRegistrationsByCustomerId(principal.customerId(), expand);
+    }
+
+    @GetMapping("/event/{eventId}")
+    public Flux<Registration> getRegistrationsByEventId(@PathVariable("eventId") String eventId) {
+        return registrationService.getRegistrationsByEventId(eventId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createRegistration(@RequestBody Registration newRegistration, UriComponentsBuilder uriBuilder) {
+        if (newRegistration.getCustomerId() == null || newRegistration.getEventId() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return registrationService.createRegistration(newRegistration)
+                .<ResponseEntity<?>>map(created -> ResponseEntity
+                        .created(uriBuilder.path("/registrations/{id}").buildAndExpand(created.getId()).toUri())
+                        .eTag(ETags.of(created.getVersion()))
+                        .body(created))
+                .onErrorResume(e -> Mono.justOrEmpty(seatError(e)).switchIfEmpty(Mono.error(e)));
+    }
+
+    /**
+     * Replace a registration; moving it to another event takes a seat there and gives the old one back
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateRegistration(@RequestBody Registration registration, @PathVariable("id") String id,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!Objects.equals(registration.getId(), id) || registration.getCustomerId() == null || registration.getEventId() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return registrationService.updateRegistration(registration, id, ETags.expectedVersion(ifMatch))
+                .<ResponseEntity<?>>map(updated -> ETags.ok(updated.getVersion()).build())
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()))
+                .onErrorResume(e -> Mono.justOrEmpty(seatError(e)).switchIfEmpty(Mono.error(e)));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteRegistration(@PathVariable("id") String id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return registrationService.deleteRegistration(id, ETags.expectedVersion(ifMatch))
+                .map(deleted -> deleted ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build())
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build()));
+    }
+
+    /**
+     * The response for a seat that could not be taken, as the servlet build answers it; null for other errors
+     */
+    private static ResponseEntity<?> seatError(Throwable e) {
+        if (e instanceof EventFullException) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+        if (e instanceof EventNotFoundException) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.capstone.reactive.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class RootController {
+
+    /**
+     * Root endpoint - confirms service is running; the load test polls it to know the service is up
+     * GET /api/
+     */
+    @GetMapping("/")
+    public Map<String, String> serviceStatus() {
+        return Map.of("status", "Data Service is up and running", "service", "Data Service (reactive)", "version", "1.0.0");
+    }
+}
@@ -0,0 +1,9 @@
+package com.capstone.reactive.repository;
+
+import com.capstone.domain.Customer;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCustomersRepository extends ReactiveMongoRepository<Customer, String> {
+    Mono<Customer> findByEmail(String email);
+}
@@ -0,0 +1,7 @@
+package com.capstone.reactive.repository;
+
+import com.capstone.domain.Event;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveEventRepository extends ReactiveMongoRepository<Event, String> {
+}
@@ -0,0 +1,10 @@
+package com.capstone.reactive.repository;
+
+import com.capstone.domain.Registration;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveRegistrationRepository extends ReactiveMongoRepository<Registration, String> {
+    Flux<Registration> findByCustomerId(String customerId);
+    Flux<Registration> findByEventId(String eventId);
+}
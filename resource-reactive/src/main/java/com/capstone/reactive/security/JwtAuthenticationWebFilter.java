@@ -0,0 +1,99 @@
+package com.capstone.reactive.security;
+
+import com.capstone.security.JwtPrincipal;
+import com.capstone.security.JwtTokenUtil;
+import com.capstone.security.ServiceKey;
+import io.jsonwebtoken.Claims;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * WebFlux port of the servlet JwtAuthenticationFilter: same open paths, same verified-token cache,
+ * same 401 bodies. The claims are put on the exchange attributes ("username", "email", "customerId")
+ * and a JwtPrincipal authentication into the Reactor context instead of a thread-local.
+ * Not a bean on its own: SecurityConfig adds it to the security chain only, as WebFlux would
+ * otherwise run every WebFilter bean a second time outside of it.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final ServiceKey serviceKey;
+
+    public JwtAuthenticationWebFilter(JwtTokenUtil jwtTokenUtil, ServiceKey serviceKey) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.serviceKey = serviceKey;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (isOpen(path, method)) {
+            return chain.filter(exchange);
+        }
+
+        // The account service authenticates with the shared service key instead of a customer's token
+        String serviceKeyHeader = exchange.getRequest().getHeaders().getFirst(ServiceKey.HEADER);
+        if (serviceKeyHeader != null) {
+            if (!serviceKey.matches(serviceKeyHeader)) {
+                return unauthorized(exchange.getResponse(), "Invalid service key");
+            }
+            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(ServiceKey.authentication()));
+        }
+
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return unauthorized(exchange.getResponse(), "Authorization header is missing or invalid");
+        }
+
+        Claims claims;
+        try {
+            // HMAC check on a cache miss only; cheap enough to stay on the event loop
+            claims = jwtTokenUtil.getVerifiedClaims(authorizationHeader.substring(7));
+        } catch (Exception e) {
+            return unauthorized(exchange.getResponse(), "JWT token validation failed");
+        }
+        if (claims == null) {
+            return unauthorized(exchange.getResponse(), "Invalid or expired JWT token");
+        }
+
+        JwtPrincipal principal = JwtPrincipal.from(claims);
+        exchange.getAttributes().put("username", principal.subject());
+        if (principal.email() != null) {
+            exchange.getAttributes().put("email", principal.email());
+        }
+        if (principal.customerId() != null) {
+            exchange.getAttributes().put("customerId", principal.customerId());
+        }
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private static boolean isOpen(String path, HttpMethod method) {
+        return path.equals("/")
+                || path.equals("/actuator/health") || path.equals("/actuator/prometheus")
+                // Signup; the email lookup needs the service key
+                || (path.equals("/customers") && HttpMethod.POST.equals(method));
+    }
+
+    private static Mono<Void> unauthorized(ServerHttpResponse response, String error) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(("{\"error\":\"" + error + "\"}").getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,117 @@
+package com.capstone.reactive.service;
+
+import com.capstone.domain.Customer;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.query.ListQueries;
+import com.capstone.query.VersionedWrites;
+import com.capstone.reactive.repository.ReactiveCustomersRepository;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Service
+public class CustomerService {
+    private static final Set<String> TEXT_FILTERS = Set.of("name", "email", "companyName", "location", "jobTitle", "phoneNumber");
+    private static final Set<String> NUMBER_FILTERS = Set.of("employeeCount");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("name", "email", "companyName", "location", "jobTitle", "employeeCount");
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("name", "email", "companyName", "location", "employeeCount",
+            "phoneNumber", "jobTitle", "isAdmin");
+    private static final Set<String> SECRET_FIELDS = Set.of("password");
+    // Kept as stored by a replace: the hash only changes through updatePassword, isAdmin never from a request
+    private static final Set<String> UNREPLACEABLE_FIELDS = Set.of("password", "isAdmin");
+    // The only kind of value PUT /customers/{id}/password stores: $2a$, $2b$ or $2y$, cost, 22 salt + 31 hash chars
+    public static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]\\$\\d{2}\\$.{53}$");
+    private static final Set<String> SUMMARY_FIELDS = Set.of("name", "email", "companyName");
+
+    private final ReactiveCustomersRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public CustomerService(ReactiveCustomersRepository repository, ReactiveMongoTemplate mongoTemplate) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Matching customers with only the ?fields= requested, or name, email and companyName by default
+     */
+    public Flux<Map<String, Object>> findCustomers(Map<String, String> filters) {
+        return ReactiveQuerySupport.findProjected(mongoTemplate, filterQuery(filters), fields(filters), Customer.class);
+    }
+
+    public Mono<PageResponse<Map<String, Object>>> findCustomers(Map<String, String> filters, PageParams paging) {
+        Set<String> fields = fields(filters);
+        return ReactiveQuerySupport.page(mongoTemplate, Customer.class, filterQuery(filters), paging, SORTABLE_FIELDS,
+                query -> ReactiveQuerySupport.findProjected(mongoTemplate, query, fields, Customer.class),
+                document -> (String) document.get("id"));
+    }
+
+    private static Set<String> fields(Map<String, String> filters) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        return fields == null ? SUMMARY_FIELDS : fields;
+    }
+
+    /**
+     * The matching customers without password hashes, as a stream the cursor feeds on demand
+     */
+    public Flux<Customer> streamCustomers(Map<String, String> filters) {
+        Query query = filterQuery(filters);
+        query.fields().exclude(SECRET_FIELDS.toArray(String[]::new));
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    private Query filterQuery(Map<String, String> filters) {
+        ListQueries.checkParams(filters, TEXT_FILTERS, NUMBER_FILTERS);
+        Query query = new Query();
+        ListQueries.addTextFilters(query, filters, TEXT_FILTERS);
+        ListQueries.addNumberFilters(query, filters, NUMBER_FILTERS);
+        return query;
+    }
+
+    /**
+     * The customer without its password hash
+     */
+    public Mono<Customer> getCustomerById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().exclude(SECRET_FIELDS.toArray(String[]::new));
+        return mongoTemplate.findOne(query, Customer.class);
+    }
+
+    public Mono<Customer> getCustomerByEmail(String email) {
+        return repository.findByEmail(email);
+    }
+
+    public Mono<Customer> createCustomer(Customer customer) {
+        customer.setVersion(null);
+        return repository.save(customer);
+    }
+
+    /**
+     * Set a new password hash. Emits false if no such customer exists.
+     */
+    public Mono<Boolean> updatePassword(String id, String passwordHash) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        return mongoTemplate.updateFirst(query, new Update().set("password", passwordHash).inc(VersionedWrites.VERSION, 1), Customer.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    /**
+     * Replace the customer (but not its password or isAdmin) in one conditional write. Empty if no such
+     * customer exists; an OptimisticLockingFailureException on a version mismatch.
+     */
+    public Mono<Customer> updateCustomer(Customer customer, String id, Long expectedVersion) {
+        return ReactiveQuerySupport.replace(mongoTemplate, id, expectedVersion, customer, Customer.class, UNREPLACEABLE_FIELDS);
+    }
+
+    public Mono<Boolean> deleteCustomer(String id, Long expectedVersion) {
+        return ReactiveQuerySupport.delete(mongoTemplate, id, expectedVersion, Customer.class);
+    }
+}
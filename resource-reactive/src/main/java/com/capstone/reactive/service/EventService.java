@@ -0,0 +1,111 @@
+package com.capstone.reactive.service;
+
+import com.capstone.domain.Event;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.query.ListQueries;
+import com.capstone.reactive.repository.ReactiveEventRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class EventService {
+
+    private static final Set<String> TEXT_FILTERS = Set.of("eventName", "eventDescription");
+    private static final Set<String> NUMBER_FILTERS = Set.of("eventAvailability");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("eventName", "eventAvailability", "eventStartDate");
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("eventName", "eventDescription", "eventAvailability",
+            "eventStartDate", "eventEndDate");
+
+    private final ReactiveEventRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public EventService(ReactiveEventRepository repository, ReactiveMongoTemplate mongoTemplate) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Events matching the filters; with from/to only those starting in [from, to), in start order
+     */
+    public Flux<Event> findEvents(Map<String, String> filters) {
+        Query query = filterQuery(filters);
+        if (isDateRange(filters)) {
+            query.with(Sort.by("eventStartDate", "_id"));
+        }
+        return mongoTemplate.find(query, Event.class);
+    }
+
+    public Mono<PageResponse<Event>> findEvents(Map<String, String> filters, PageParams paging) {
+        if (isDateRange(filters)) {
+            paging = paging.withDefaultSort("eventStartDate");
+        }
+        return ReactiveQuerySupport.page(mongoTemplate, Event.class, filterQuery(filters), paging, SORTABLE_FIELDS,
+                query -> mongoTemplate.find(query, Event.class), Event::getId);
+    }
+
+    /**
+     * Projection of findEvents on the ?fields= requested; null if the request has none
+     */
+    public Flux<Map<String, Object>> findEventFields(Map<String, String> filters) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        if (fields == null) {
+            return null;
+        }
+        Query query = filterQuery(filters);
+        if (isDateRange(filters)) {
+            query.with(Sort.by("eventStartDate", "_id"));
+        }
+        return ReactiveQuerySupport.findProjected(mongoTemplate, query, fields, Event.class);
+    }
+
+    private static boolean isDateRange(Map<String, String> filters) {
+        return filters.containsKey("from") || filters.containsKey("to");
+    }
+
+    private Query filterQuery(Map<String, String> filters) {
+        ListQueries.checkParams(filters, TEXT_FILTERS, NUMBER_FILTERS, ListQueries.DATE_RANGE_FILTERS);
+        Query query = new Query();
+        ListQueries.addTextFilters(query, filters, TEXT_FILTERS);
+        ListQueries.addNumberFilters(query, filters, NUMBER_FILTERS);
+        ListQueries.addDateRange(query, filters, "eventStartDate");
+        return query;
+    }
+
+    public Mono<Event> getEventById(String id) {
+        return repository.findById(id);
+    }
+
+    public Mono<Event> createEvent(Event event) {
+        event.setVersion(null);
+        return repository.save(event);
+    }
+
+    /**
+     * Return why an event cannot be stored, or null if it is valid
+     */
+    public static String validate(Event event) {
+        if (event.getEventName() == null || event.getEventDescription() == null || event.getEventStartDate() == null) {
+            return "eventName, eventDescription and eventStartDate are required";
+        }
+        if (event.getEventEndDate() != null && event.getEventEndDate().isBefore(event.getEventStartDate())) {
+            return "eventEndDate must not be before eventStartDate";
+        }
+        return null;
+    }
+
+    public Mono<Event> updateEvent(Event event, String id, Long expectedVersion) {
+        return ReactiveQuerySupport.replace(mongoTemplate, id, expectedVersion, event, Event.class, Set.of());
+    }
+
+    public Mono<Boolean> deleteEvent(String id, Long expectedVersion) {
+        return ReactiveQuerySupport.delete(mongoTemplate, id, expectedVersion, Event.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.capstone.reactive.service;
+
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.query.ListQueries;
+import com.capstone.query.VersionedWrites;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Reactive counterparts of the servlet build's QuerySupport and UpdateSupport: they run the same
+ * list queries and versioned conditional writes, built by the shared ListQueries and VersionedWrites,
+ * on ReactiveMongoTemplate and return Mono/Flux instead of blocking.
+ */
+final class ReactiveQuerySupport {
+
+    private ReactiveQuerySupport() {
+    }
+
+    /**
+     * Projected documents as maps with id, version and the selected fields, streamed from the cursor
+     */
+    static Flux<Map<String, Object>> findProjected(ReactiveMongoTemplate mongoTemplate, Query query, Set<String> fields, Class<?> type) {
+        query.fields().include(fields.toArray(String[]::new)).include(VersionedWrites.VERSION);
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type))
+                .map(ListQueries::toResponse);
+    }
+
+    /**
+     * One page of a filter query, offset or keyset, fetching size + 1 documents instead of counting.
+     * A keyset page with a sort field (a service default) seeks past the last (field, _id) of the
+     * previous page, reading the cursor document's field back by _id.
+     */
+    static <T> Mono<PageResponse<T>> page(ReactiveMongoTemplate mongoTemplate, Class<?> type, Query query, PageParams paging,
+                                          Set<String> sortableFields, Function<Query, Flux<T>> find, Function<T, String> idOf) {
+        if (!paging.isKeyset()) {
+            return find.apply(ListQueries.offsetPage(query, paging, sortableFields)).collectList()
+                    .map(content -> ListQueries.toPage(content, paging, idOf));
+        }
+
+        ObjectId after = ListQueries.after(paging);
+        String sortField = paging.getSortField();
+        Mono<Query> seek = Mono.just(query);
+        if (after != null) {
+            seek = sortField == null
+                    ? Mono.just(query.addCriteria(Criteria.where("_id").gt(after)))
+                    : mongoTemplate.findOne(ListQueries.cursorLookup(after, sortField), Document.class, mongoTemplate.getCollectionName(type))
+                            .switchIfEmpty(Mono.error(ListQueries::cursorGone))
+                            .map(cursor -> query.addCriteria(ListQueries.after(sortField, cursor.get(sortField), after)));
+        }
+        return seek.flatMap(seekQuery -> find.apply(ListQueries.keysetPage(seekQuery, paging)).collectList())
+                .map(content -> ListQueries.toPage(content, paging, idOf));
+    }
+
+    /**
+     * Replace in one conditional write; empty if there is no such document, an error on a version mismatch
+     */
+    static <T> Mono<T> replace(ReactiveMongoTemplate mongoTemplate, String id, Long expectedVersion, T item,
+                               Class<T> type, Set<String> untouched) {
+        return mongoTemplate.findAndModify(VersionedWrites.byIdAndVersion(id, expectedVersion),
+                        VersionedWrites.replacement(mongoTemplate.getConverter(), item, untouched),
+                        FindAndModifyOptions.options().returnNew(true), type)
+                .switchIfEmpty(versionConflict(mongoTemplate, id, expectedVersion, type));
+    }
+
+    /**
+     * Delete in one conditional write and emit the removed document; empty if there is no such
+     * document, an error on a version mismatch
+     */
+    static <T> Mono<T> remove(ReactiveMongoTemplate mongoTemplate, String id, Long expectedVersion, Class<T> type) {
+        return mongoTemplate.findAndRemove(VersionedWrites.byIdAndVersion(id, expectedVersion), type)
+                .switchIfEmpty(versionConflict(mongoTemplate, id, expectedVersion, type));
+    }
+
+    /**
+     * Delete in one conditional write without reading the document back; emits whether it existed
+     */
+    static Mono<Boolean> delete(ReactiveMongoTemplate mongoTemplate, String id, Long expectedVersion, Class<?> type) {
+        return mongoTemplate.remove(VersionedWrites.byIdAndVersion(id, expectedVersion), type)
+                .flatMap(result -> result.getDeletedCount() > 0 ? Mono.just(true)
+                        : versionConflict(mongoTemplate, id, expectedVersion, type).thenReturn(false));
+    }
+
+    // Only the failure path pays for telling "changed" apart from "gone"
+    private static <T> Mono<T> versionConflict(ReactiveMongoTemplate mongoTemplate, String id, Long expectedVersion, Class<?> type) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(id)), type)
+                .flatMap(exists -> exists
+                        ? Mono.<T>error(new OptimisticLockingFailureException(
+                                type.getSimpleName() + " " + id + " is no longer at version " + expectedVersion))
+                        : Mono.<T>empty());
+    }
+}
@@ -0,0 +1,170 @@
+package com.capstone.reactive.service;
+
+import com.capstone.domain.Event;
+import com.capstone.domain.Registration;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.dto.RegistrationWithEvent;
+import com.capstone.query.ListQueries;
+import com.capstone.query.VersionedWrites;
+import com.capstone.reactive.repository.ReactiveRegistrationRepository;
+import com.capstone.service.EventFullException;
+import com.capstone.service.EventNotFoundException;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class RegistrationService {
+
+    private static final Set<String> EXACT_FILTERS = Set.of("customerId", "eventId", "status");
+    private static final Set<String> TEXT_FILTERS = Set.of("eventName");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("customerId", "eventId", "eventName", "status");
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("customerId", "eventId", "eventName", "status");
+
+    private final ReactiveRegistrationRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public RegistrationService(ReactiveRegistrationRepository repository, ReactiveMongoTemplate mongoTemplate) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Flux<Registration> findRegistrations(Map<String, String> filters) {
+        return mongoTemplate.find(filterQuery(filters), Registration.class);
+    }
+
+    public Mono<PageResponse<Registration>> findRegistrations(Map<String, String> filters, PageParams paging) {
+        return ReactiveQuerySupport.page(mongoTemplate, Registration.class, filterQuery(filters), paging, SORTABLE_FIELDS,
+                query -> mongoTemplate.find(query, Registration.class), Registration::getId);
+    }
+
+    /**
+     * Projection of findRegistrations on the ?fields= requested; null if the request has none
+     */
+    public Flux<Map<String, Object>> findRegistrationFields(Map<String, String> filters) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        return fields == null ? null : ReactiveQuerySupport.findProjected(mongoTemplate, filterQuery(filters), fields, Registration.class);
+    }
+
+    private Query filterQuery(Map<String, String> filters) {
+        ListQueries.checkParams(filters, EXACT_FILTERS, TEXT_FILTERS);
+        Query query = new Query();
+        ListQueries.addExactFilters(query, filters, EXACT_FILTERS);
+        ListQueries.addTextFilters(query, filters, TEXT_FILTERS);
+        return query;
+    }
+
+    public Mono<Registration> getRegistrationById(String id) {
+        return repository.findById(id);
+    }
+
+    public Flux<Registration> getRegistrationsByCustomerId(String customerId) {
+        return repository.findByCustomerId(customerId);
+    }
+
+    public Flux<Registration> getRegistrationsByEventId(String eventId) {
+        return repository.findByEventId(eventId);
+    }
+
+    /**
+     * A customer's registrations with their event embedded, in the same single $lookup
+     * aggregation as the servlet build
+     */
+    public Flux<RegistrationWithEvent> getRegistrationsWithEventsByCustomerId(String customerId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("customerId").is(customerId)),
+                context -> new Document("$addFields", new Document("eventObjectId",
+                        new Document("$convert", new Document("input", "$eventId")
+                                .append("to", "objectId")
+                                .append("onError", null)
+                                .append("onNull", null)))),
+                context -> new Document("$lookup", new Document("from", "events")
+                        .append("localField", "eventObjectId")
+                        .append("foreignField", "_id")
+                        .append("as", "event")),
+                context -> new Document("$unwind", new Document("path", "$event")
+                        .append("preserveNullAndEmptyArrays", true)),
+                context -> new Document("$project", new Document("eventObjectId", 0)));
+        return mongoTemplate.aggregate(aggregation, "registrations", RegistrationWithEvent.class);
+    }
+
+    /**
+     * Take a seat with one conditional findAndModify, then insert the registration; the seat is
+     * given back if the insert fails
+     */
+    public Mono<Registration> createRegistration(Registration registration) {
+        registration.setVersion(null);
+        return reserveSeat(registration.getEventId())
+                .flatMap(event -> {
+                    registration.setEventName(event.getEventName());
+                    return repository.insert(registration)
+                            .onErrorResume(e -> releaseSeat(registration.getEventId()).then(Mono.<Registration>error(e)));
+                });
+    }
+
+    /**
+     * Replace a registration. Keeping its event is one conditional write; moving it takes the new
+     * seat before giving the old one back. Empty if no such registration exists.
+     */
+    public Mono<Registration> updateRegistration(Registration registration, String id, Long expectedVersion) {
+        Query sameEvent = VersionedWrites.byIdAndVersion(id, expectedVersion)
+                .addCriteria(Criteria.where("eventId").is(registration.getEventId()));
+        return mongoTemplate.findAndModify(sameEvent, VersionedWrites.replacement(mongoTemplate.getConverter(), registration, Set.of()),
+                        FindAndModifyOptions.options().returnNew(true), Registration.class)
+                .switchIfEmpty(Mono.defer(() -> repository.findById(id)
+                        .flatMap(existing -> moveRegistration(existing, registration, id, expectedVersion))));
+    }
+
+    private Mono<Registration> moveRegistration(Registration existing, Registration registration, String id, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            return Mono.error(new OptimisticLockingFailureException("Registration " + id + " is no longer at version " + expectedVersion));
+        }
+        if (Objects.equals(existing.getEventId(), registration.getEventId())) {
+            return ReactiveQuerySupport.replace(mongoTemplate, id, existing.getVersion(), registration, Registration.class, Set.of());
+        }
+        // Pinned to the version read above, so a concurrent move cannot free a seat twice
+        return reserveSeat(registration.getEventId())
+                .then(ReactiveQuerySupport.replace(mongoTemplate, id, existing.getVersion(), registration, Registration.class, Set.of())
+                        .onErrorResume(e -> releaseSeat(registration.getEventId()).then(Mono.<Registration>error(e)))
+                        .switchIfEmpty(releaseSeat(registration.getEventId()).then(Mono.<Registration>empty())))
+                .flatMap(updated -> releaseSeat(existing.getEventId()).thenReturn(updated));
+    }
+
+    /**
+     * Delete a registration and give its seat back; emits false if no such registration exists
+     */
+    public Mono<Boolean> deleteRegistration(String id, Long expectedVersion) {
+        return ReactiveQuerySupport.remove(mongoTemplate, id, expectedVersion, Registration.class)
+                .flatMap(removed -> releaseSeat(removed.getEventId()).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Atomically take one seat if any is left; errors with EventFullException or EventNotFoundException
+     */
+    Mono<Event> reserveSeat(String eventId) {
+        Query query = Query.query(Criteria.where("_id").is(eventId).and("eventAvailability").gte(1));
+        Update update = new Update().inc("eventAvailability", -1).inc(VersionedWrites.VERSION, 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Event.class)
+                .switchIfEmpty(Mono.defer(() -> mongoTemplate.exists(Query.query(Criteria.where("_id").is(eventId)), Event.class)
+                        .flatMap(exists -> Mono.<Event>error(exists ? new EventFullException(eventId) : new EventNotFoundException(eventId)))));
+    }
+
+    Mono<Void> releaseSeat(String eventId) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(eventId)),
+                new Update().inc("eventAvailability", 1).inc(VersionedWrites.VERSION, 1), Event.class).then();
+    }
+}
@@ -0,0 +1,138 @@
+package com.capstone.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request logging cost with 8 request threads: the old synchronized System.out.println
+ * against SLF4J with a synchronous JSON appender, the async appender from logback-spring.xml,
+ * sampled DEBUG and disabled DEBUG. All output goes to temporary files instead of the console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class LoggingBenchmark {
+
+    public String requestPath = "/events";
+
+    private Path printStreamFile;
+    private Path syncFile;
+    private Path asyncFile;
+    private PrintStream printStream;
+    private LoggerContext loggerContext;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private Logger sampledLogger;
+    private Logger disabledLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        printStreamFile = Files.createTempFile("logging-benchmark-stdout", ".log");
+        syncFile = Files.createTempFile("logging-benchmark-sync", ".log");
+        asyncFile = Files.createTempFile("logging-benchmark-async", ".log");
+        // Same behaviour as System.out: synchronized, flushed on every println
+        printStream = new PrintStream(new FileOutputStream(printStreamFile.toFile()), true);
+
+        loggerContext = new LoggerContext();
+        Appender<ILoggingEvent> syncAppender = jsonFileAppender(syncFile);
+
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.setIncludeCallerData(false);
+        asyncAppender.addAppender(jsonFileAppender(asyncFile));
+        asyncAppender.start();
+
+        SamplingTurboFilter samplingFilter = new SamplingTurboFilter();
+        samplingFilter.setContext(loggerContext);
+        samplingFilter.setLoggerName("benchmark.sampled");
+        samplingFilter.setLevel("DEBUG");
+        samplingFilter.setRate(100);
+        samplingFilter.start();
+        loggerContext.addTurboFilter(samplingFilter);
+
+        syncLogger = logger("benchmark.sync", Level.INFO, syncAppender);
+        asyncLogger = logger("benchmark.async", Level.INFO, asyncAppender);
+        sampledLogger = logger("benchmark.sampled", Level.DEBUG, asyncAppender);
+        disabledLogger = logger("benchmark.disabled", Level.INFO, asyncAppender);
+    }
+
+    private Appender<ILoggingEvent> jsonFileAppender(Path file) throws IOException {
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new FileOutputStream(file.toFile()));
+        appender.start();
+        return appender;
+    }
+
+    private Logger logger(String name, Level level, Appender<ILoggingEvent> appender) {
+        Logger logger = loggerContext.getLogger(name);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        printStream.close();
+        Files.deleteIfExists(printStreamFile);
+        Files.deleteIfExists(syncFile);
+        Files.deleteIfExists(asyncFile);
+    }
+
+    @Benchmark
+    public void systemOutPrintln() {
+        printStream.println("DEBUG: Processing request to " + requestPath + " with auth header: " + "Present");
+    }
+
+    @Benchmark
+    public void slf4jSyncJson() {
+        syncLogger.info("Processing request to {} with auth header {}", requestPath, "present");
+    }
+
+    @Benchmark
+    public void slf4jAsyncJson() {
+        asyncLogger.info("Processing request to {} with auth header {}", requestPath, "present");
+    }
+
+    @Benchmark
+    public void slf4jAsyncSampledDebug() {
+        sampledLogger.debug("Processing request to {} with auth header {}", requestPath, "present");
+    }
+
+    @Benchmark
+    public void slf4jDisabledDebug() {
+        disabledLogger.debug("Processing request to {} with auth header {}", requestPath, "present");
+    }
+}
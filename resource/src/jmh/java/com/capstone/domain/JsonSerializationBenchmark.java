@@ -0,0 +1,110 @@
+package com.capstone.domain;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization and deserialization of the list responses, using an ObjectMapper
+ * configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"customer", "event", "registration"})
+    public String type;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private List<?> documents;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Object> list = new ArrayList<>(size);
+        Class<?> elementType = switch (type) {
+            case "customer" -> Customer.class;
+            case "event" -> Event.class;
+            case "registration" -> Registration.class;
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+        for (int i = 0; i < size; i++) {
+            list.add(switch (type) {
+                case "customer" -> customer(i);
+                case "event" -> event(i);
+                default -> registration(i);
+            });
+        }
+        documents = list;
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+        json = objectMapper.writerFor(listType).writeValueAsBytes(documents);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writerFor(listType).writeValueAsBytes(documents);
+    }
+
+    @Benchmark
+    public List<?> deserialize() throws Exception {
+        return objectMapper.readValue(json, listType);
+    }
+
+    private static String id(int i) {
+        return String.format("65%022x", i);
+    }
+
+    private static Customer customer(int i) {
+        Customer customer = new Customer();
+        customer.setId(id(i));
+        customer.setName("Customer " + i);
+        customer.setEmail("customer" + i + "@example.com");
+        customer.setPassword("$2a$10$abcdefghijklmnopqrstuuJ0fDqkWlJYQdPmfcqQ4PFdmX8g3bZ5O");
+        customer.setCompanyName("Company " + (i % 500));
+        customer.setLocation("City " + (i % 50));
+        customer.setEmployeeCount(10 + i % 1000);
+        customer.setPhoneNumber("555-" + String.format("%07d", i));
+        customer.setJobTitle("Engineer");
+        return customer;
+    }
+
+    private static Event event(int i) {
+        Event event = new Event();
+        event.setId(id(i));
+        event.setEventName("Event " + i);
+        event.setEventDescription("A description of event " + i + " that is about as long as the real ones.");
+        event.setEventAvailability(100 + i % 400);
+        event.setEventStartDate(Instant.parse("2026-11-01T18:00:00Z").plus(i % 28, ChronoUnit.DAYS));
+        return event;
+    }
+
+    private static Registration registration(int i) {
+        Registration registration = new Registration();
+        registration.setId(id(i));
+        registration.setCustomerId(id(i % 10_000));
+        registration.setEventId(id(i % 1_000));
+        registration.setEventName("Event " + (i % 1_000));
+        registration.setStatus("registered");
+        return registration;
+    }
+}
@@ -0,0 +1,116 @@
+package com.capstone.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and serialization time of a 1k customer list response: full documents (what GET /customers
+ * returned before projections, password hash included), the default summary view, and the fields
+ * the frontend list asks for, each with and without gzip.
+ * The response size is reported as the responseBytes secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSizeBenchmark {
+
+    private static final List<String> SUMMARY_FIELDS = List.of("name", "email", "companyName");
+    private static final List<String> LIST_FIELDS = List.of("name", "email", "companyName", "location", "employeeCount",
+            "phoneNumber", "jobTitle");
+
+    @Param({"full", "summary", "list"})
+    public String view;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"1000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<?> documents;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Bytes {
+        // Assigned rather than summed, so the result is the size of one response
+        public long responseBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Customer customer = customer(i);
+            list.add(switch (view) {
+                case "full" -> customer;
+                case "summary" -> project(objectMapper, customer, SUMMARY_FIELDS);
+                case "list" -> project(objectMapper, customer, LIST_FIELDS);
+                default -> throw new IllegalArgumentException("Unknown view " + view);
+            });
+        }
+        documents = list;
+    }
+
+    @Benchmark
+    public byte[] serialize(Bytes bytes) throws Exception {
+        byte[] json = writer.writeValueAsBytes(documents);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            }
+            json = compressed.toByteArray();
+        }
+        bytes.responseBytes = json.length;
+        return json;
+    }
+
+    /**
+     * The map a projected query returns: id, the selected fields and version
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> project(ObjectMapper objectMapper, Customer customer, List<String> fields) {
+        Map<String, Object> all = objectMapper.convertValue(customer, Map.class);
+        Map<String, Object> projected = new LinkedHashMap<>();
+        projected.put("id", customer.getId());
+        fields.forEach(field -> projected.put(field, all.get(field)));
+        projected.put("version", 0L);
+        return projected;
+    }
+
+    private static Customer customer(int i) {
+        Customer customer = new Customer();
+        customer.setId(String.format("65%022x", i));
+        customer.setName("Customer " + i);
+        customer.setEmail("customer" + i + "@example.com");
+        customer.setPassword("$2a$10$abcdefghijklmnopqrstuuJ0fDqkWlJYQdPmfcqQ4PFdmX8g3bZ5O");
+        customer.setCompanyName("Company " + (i % 500));
+        customer.setLocation("City " + (i % 50));
+        customer.setEmployeeCount(10 + i % 1000);
+        customer.setPhoneNumber("555-" + String.format("%07d", i));
+        customer.setJobTitle("Engineer");
+        customer.setVersion(0L);
+        return customer;
+    }
+}
@@ -0,0 +1,71 @@
+package com.capstone.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation and claim extraction, with the verified-token cache enabled ("cached")
+ * and disabled ("uncached", every call verifies the HMAC signature).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenUtilBenchmark {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    @Param({"cached", "uncached"})
+    public String cache;
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        int cacheSize = "cached".equals(cache) ? 10_000 : 0;
+        jwtTokenUtil = new JwtTokenUtil(new JwtKeyRing(SECRET, "default", "", Duration.ofHours(1)),
+                new VerifiedTokenCache(cacheSize), new SimpleMeterRegistry());
+        token = token("alice", "alice@example.com");
+    }
+
+    static String token(String username, String email) {
+        Date now = new Date();
+        return Jwts.builder()
+                .subject(username)
+                .claim("email", email)
+                .claim("customerId", "650000000000000000000001")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenUtil.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtTokenUtil.getEmailFromToken(token);
+    }
+}
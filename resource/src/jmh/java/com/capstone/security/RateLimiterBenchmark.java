@@ -0,0 +1,65 @@
+package com.capstone.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The allowed path of RateLimiter.acquire with the default routes, from 4 threads: "shared" sends every
+ * request as one subject from one address (all threads contend on the same two buckets), "spread"
+ * picks one of 10,000 subjects and addresses per request. Limits are high enough that nothing is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final String ROUTES = "GET /customers/lookup - -; POST /customers - -; "
+            + "GET /customers 1000000000/1000000000 1000000000/1000000000; "
+            + "GET /registrations 1000000000/1000000000 1000000000/1000000000; "
+            + "* /** 1000000000/1000000000 1000000000/1000000000";
+    private static final int KEYS = 10_000;
+
+    @Param({"shared", "spread"})
+    public String keys;
+
+    private RateLimiter limiter;
+    private String[] subjects;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(ROUTES, 100_000, new SimpleMeterRegistry());
+        int count = "shared".equals(keys) ? 1 : KEYS;
+        subjects = new String[count];
+        addresses = new String[count];
+        for (int i = 0; i < count; i++) {
+            subjects[i] = "user-" + i;
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long registrationsList() {
+        int i = ThreadLocalRandom.current().nextInt(subjects.length);
+        return limiter.acquire("GET", "/registrations", subjects[i], addresses[i]);
+    }
+
+    @Benchmark
+    public long eventById() {
+        // Falls through to the catch-all pattern, the slowest route to match
+        int i = ThreadLocalRandom.current().nextInt(subjects.length);
+        return limiter.acquire("GET", "/events/66f1c0ffee", subjects[i], addresses[i]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.capstone.service;
+
+import com.capstone.domain.Registration;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registration inserts per second from 64 concurrent callers, each insert on its own ("direct", as
+ * without the pipeline) and through RegistrationWritePipeline with a batch window of 0 to 5 ms.
+ * Runs against an in-memory Mongo server unless -Dbenchmark.mongo.uri points to a real one, which
+ * is where the saved round trips show: against a local in-memory server they cost very little.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class RegistrationWritePipelineBenchmark {
+
+    @Param({"direct", "0", "1", "2", "5"})
+    public String windowMs;
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private RegistrationWritePipeline pipeline;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        String uri = System.getProperty("benchmark.mongo.uri");
+        if (uri == null) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            uri = mongoServer.bindAndGetConnectionString();
+        }
+        mongoClient = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(mongoClient, "registration-write-pipeline-benchmark");
+        mongoTemplate.dropCollection(Registration.class);
+        if (!"direct".equals(windowMs)) {
+            pipeline = new RegistrationWritePipeline(mongoTemplate, new BulkWriter(mongoTemplate, 1000),
+                    Duration.ofMillis(Long.parseLong(windowMs)), 256, 10_000, Duration.ofSeconds(1), Duration.ofSeconds(5), new SimpleMeterRegistry());
+            pipeline.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        mongoTemplate.dropCollection(Registration.class);
+        mongoClient.close();
+        if (mongoServer != null) {
+            mongoServer.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Registration insert() {
+        long i = sequence.incrementAndGet();
+        Registration registration = new Registration();
+        registration.setCustomerId("customer-" + i);
+        registration.setEventId("event-" + (i % 100));
+        registration.setEventName("Ticket drop");
+        registration.setStatus("registered");
+        return pipeline == null ? mongoTemplate.insert(registration) : pipeline.submit(registration).join();
+    }
+}
@@ -0,0 +1,47 @@
+package com.capstone.config;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gives documents written before versioning a version of 0, so they get an ETag and can be
+ * updated with If-Match. Only documents without a version are touched, so it is a no-op once done.
+ */
+@Component
+public class DocumentVersionMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentVersionMigration.class);
+    private static final List<String> COLLECTIONS = List.of("customers", "events", "registrations");
+
+    private final MongoTemplate mongoTemplate;
+    // Checked when it runs rather than with @ConditionalOnProperty, which an AOT build fixes at build time
+    private final boolean enabled;
+
+    public DocumentVersionMigration(MongoTemplate mongoTemplate, @Value("${migrations.document-versions.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        for (String collection : COLLECTIONS) {
+            long versioned = mongoTemplate.getCollection(collection).updateMany(
+                    new Document("version", new Document("$exists", false)),
+                    new Document("$set", new Document("version", 0L))).getModifiedCount();
+            if (versioned > 0) {
+                log.info("Set version 0 on {} unversioned documents in {}", versioned, collection);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.capstone.config;
+
+import com.capstone.domain.FlexibleInstantDeserializer;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One-off migration of events written while eventStartDate was a free-form string: converts the
+ * string to a BSON date with the same parser the API uses for dates (FlexibleInstantDeserializer),
+ * so a stored value is read exactly as it would be if it were sent again. Strings that do not parse
+ * are moved to eventStartDateRaw (and eventStartDate cleared) so they can be fixed by hand instead of
+ * failing every read. Only string-typed values are touched, so running it again on every start is a no-op.
+ */
+@Component
+public class EventDateMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EventDateMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    // Checked when it runs rather than with @ConditionalOnProperty, which an AOT build fixes at build time
+    private final boolean enabled;
+
+    public EventDateMigration(MongoTemplate mongoTemplate, @Value("${migrations.event-dates.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        MongoCollection<Document> events = mongoTemplate.getCollection("events");
+
+        long converted = 0;
+        long unparseable = 0;
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (Document event : events.find(Filters.type("eventStartDate", "string"))
+                .projection(Projections.include("eventStartDate"))) {
+            String raw = event.getString("eventStartDate");
+            // Only while the value is still that string, so a concurrent write is not overwritten
+            var stillRaw = Filters.and(Filters.eq("_id", event.get("_id")), Filters.eq("eventStartDate", raw));
+            try {
+                updates.add(new UpdateOneModel<>(stillRaw,
+                        Updates.set("eventStartDate", Date.from(FlexibleInstantDeserializer.parse(raw)))));
+                converted++;
+            } catch (DateTimeParseException e) {
+                updates.add(new UpdateOneModel<>(stillRaw,
+                        Updates.combine(Updates.set("eventStartDateRaw", raw), Updates.set("eventStartDate", null))));
+                unparseable++;
+            }
+            if (updates.size() == BATCH_SIZE) {
+                events.bulkWrite(updates);
+                updates.clear();
+            }
+        }
+        if (!updates.isEmpty()) {
+            events.bulkWrite(updates);
+        }
+
+        if (converted > 0) {
+            log.info("Converted eventStartDate of {} events from string to date", converted);
+        }
+        if (unparseable > 0) {
+            log.warn("{} events had an eventStartDate that is not a date; the value was moved to eventStartDateRaw", unparseable);
+        }
+    }
+}
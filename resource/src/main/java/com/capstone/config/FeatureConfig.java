@@ -0,0 +1,65 @@
+package com.capstone.config;
+
+import com.capstone.service.BulkWriter;
+import com.capstone.service.ChangeStreamEventCacheInvalidationBroadcaster;
+import com.capstone.service.EventCacheInvalidationBroadcaster;
+import com.capstone.service.InMemoryEventCacheInvalidationBroadcaster;
+import com.capstone.service.RegistrationWritePipeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+/**
+ * Beans picked by a property when the context starts. Spring AOT (./gradlew cdsArchive -Paot,
+ * nativeCompile) evaluates @ConditionalOnProperty once at build time, so these switches are read
+ * here instead and keep working when set on an AOT-built service.
+ */
+@Configuration
+public class FeatureConfig {
+
+    @Bean
+    public EventCacheInvalidationBroadcaster eventCacheInvalidationBroadcaster(
+            @Value("${events.cache.invalidation:local}") String invalidation,
+            @Value("${events.cache.change-stream.retry-delay:5s}") Duration retryDelay,
+            MongoTemplate mongoTemplate) {
+        switch (invalidation) {
+            case "local":
+                return new InMemoryEventCacheInvalidationBroadcaster();
+            case "change-stream":
+                ChangeStreamEventCacheInvalidationBroadcaster broadcaster =
+                        new ChangeStreamEventCacheInvalidationBroadcaster(mongoTemplate, retryDelay);
+                broadcaster.start();
+                return broadcaster;
+            default:
+                throw new IllegalArgumentException("events.cache.invalidation must be 'local' or 'change-stream': " + invalidation);
+        }
+    }
+
+    /**
+     * Null, so RegistrationService inserts each registration itself, unless
+     * registrations.write-pipeline.enabled=true
+     */
+    @Bean(destroyMethod = "stop")
+    public RegistrationWritePipeline registrationWritePipeline(
+            @Value("${registrations.write-pipeline.enabled:false}") boolean enabled,
+            @Value("${registrations.write-pipeline.window:2ms}") Duration window,
+            @Value("${registrations.write-pipeline.max-batch-size:256}") int maxBatchSize,
+            @Value("${registrations.write-pipeline.queue-capacity:10000}") int queueCapacity,
+            @Value("${registrations.write-pipeline.enqueue-timeout:100ms}") Duration enqueueTimeout,
+            @Value("${registrations.write-pipeline.write-timeout:5s}") Duration writeTimeout,
+            MongoTemplate mongoTemplate,
+            BulkWriter bulkWriter,
+            MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return null;
+        }
+        RegistrationWritePipeline pipeline = new RegistrationWritePipeline(mongoTemplate, bulkWriter, window,
+                maxBatchSize, queueCapacity, enqueueTimeout, writeTimeout, meterRegistry);
+        pipeline.start();
+        return pipeline;
+    }
+}
@@ -0,0 +1,33 @@
+package com.capstone.config;
+
+import com.capstone.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics that are not covered by Spring Boot's auto-configuration
+ * (HTTP server requests, Mongo commands and pool, JVM, GC, threads and executors).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(VerifiedTokenCache tokenCache) {
+        return registry -> {
+            FunctionCounter.builder("jwt.cache.requests", tokenCache, VerifiedTokenCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("Verified-token cache lookups")
+                    .register(registry);
+            FunctionCounter.builder("jwt.cache.requests", tokenCache, VerifiedTokenCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("Verified-token cache lookups")
+                    .register(registry);
+            Gauge.builder("jwt.cache.size", tokenCache, VerifiedTokenCache::size)
+                    .description("Tokens currently held in the verified-token cache")
+                    .register(registry);
+        };
+    }
+}
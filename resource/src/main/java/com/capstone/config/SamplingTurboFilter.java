@@ -0,0 +1,49 @@
+package com.capstone.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that keeps only one in every {@code rate} events at or below {@code level}
+ * from loggers whose name starts with {@code loggerName}, so a high-volume debug logger can stay
+ * enabled under load. Configured in logback-spring.xml, one filter per sampled logger.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private String loggerName = "";
+    private Level level = Level.DEBUG;
+    private long rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params, Throwable t) {
+        // format is null for isDebugEnabled() style checks; those are answered by the logger level alone
+        if (!isStarted() || format == null || rate <= 1
+                || eventLevel.toInt() > level.toInt()
+                || !eventLevel.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !logger.getName().startsWith(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        long count = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong()).getAndIncrement();
+        return count % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.DEBUG);
+    }
+
+    public void setRate(long rate) {
+        this.rate = rate;
+    }
+}
@@ -1,6 +1,7 @@
 package com.capstone.config;
 
 import com.capstone.security.JwtAuthenticationFilter;
+import com.capstone.security.ServiceKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,8 +27,10 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("http://localhost:5173", "http://127.0.0.1:5173"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Lets the browser read the version to send back in If-Match
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -43,8 +46,10 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/").permitAll()  // Allow health check endpoint
-                .requestMatchers("GET", "/customers").permitAll()  // Allow GET customers for authentication
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()  // Allow health probes and metrics scraping
                 .requestMatchers("POST", "/customers").permitAll()  // Allow POST customers for registration
+                .requestMatchers("GET", "/customers/lookup").hasAuthority(ServiceKey.ROLE)  // Returns the password hash: account service only
+                .requestMatchers("PUT", "/customers/*/password").hasAuthority(ServiceKey.ROLE)  // Replaces the hash: account service only
                 .anyRequest().authenticated()  // All other endpoints require authentication
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,27 @@
+package com.capstone.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Reads the body of a bulk request lazily, item by item. Accepts either a JSON array
+ * or newline-delimited JSON, so an import never has to be materialized as one big list.
+ */
+@Component
+public class BulkRequestReader {
+
+    private final ObjectMapper objectMapper;
+
+    public BulkRequestReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> Iterator<T> read(InputStream body, Class<T> type) throws IOException {
+        // readValues unwraps a root-level array and also reads a plain sequence of values
+        return objectMapper.readerFor(type).readValues(body);
+    }
+}
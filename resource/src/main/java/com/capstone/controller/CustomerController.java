@@ -1,13 +1,25 @@
 package com.capstone.controller;
 
 import com.capstone.domain.Customer;
+import com.capstone.dto.BulkResult;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
 import com.capstone.service.CustomerService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -16,14 +28,65 @@ import java.util.Optional;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final NdjsonWriter ndjsonWriter;
+    private final BulkRequestReader bulkRequestReader;
+    private final PatchReader patchReader;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, NdjsonWriter ndjsonWriter, BulkRequestReader bulkRequestReader,
+                              PatchReader patchReader) {
         this.customerService = customerService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkRequestReader = bulkRequestReader;
+        this.patchReader = patchReader;
     }
 
+    /**
+     * List customers, optionally filtered by name, email, companyName, location, jobTitle, phoneNumber
+     * or employeeCount. Adding page/size/sort (or after/size for keyset paging) returns one page.
+     * Each customer has id, version and the ?fields= requested (comma-separated), by default
+     * name, email and companyName. The password hash is never listed.
+     */
     @GetMapping
-    public List<Customer> getAllCustomers(){
-        return customerService.getAllCustomers();
+    public ResponseEntity<?> getAllCustomers(@RequestParam Map<String, String> params){
+        PageParams paging = PageParams.from(params);
+        if (paging == null){
+            List<Map<String, Object>> customers = customerService.findCustomers(params);
+            return ETags.list(customers, ETags::key).body(customers);
+        } else{
+            PageResponse<Map<String, Object>> page = customerService.findCustomers(params, paging);
+            return ETags.page(page, ETags::key).body(page);
+        }
+    }
+
+    /**
+     * Stream the (optionally filtered) customers as NDJSON when the client sends Accept: application/x-ndjson
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers(@RequestParam Map<String, String> params){
+        return ndjsonWriter.stream(() -> customerService.streamCustomers(params), Customer.class);
+    }
+
+    /**
+     * Same NDJSON stream for clients that cannot set an Accept header
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(@RequestParam Map<String, String> params){
+        return streamCustomers(params);
+    }
+
+    /**
+     * Single-document lookup by email, served from the unique customers.email index.
+     * GET /api/customers/lookup?email=... The only response with the password hash, so it needs
+     * the account service's key (see ServiceKey); customers' tokens are refused.
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<?> getCustomerByEmail(@RequestParam("email") String email){
+        Customer customer = customerService.getCustomerByEmail(email);
+        if (customer == null){
+            return ResponseEntity.notFound().build();
+        } else{
+            return ETags.ok(customer.getVersion()).body(customer);
+        }
     }
 
     @GetMapping("/{id}")
@@ -32,7 +95,7 @@ public class CustomerController {
         if (customer == null){
             return ResponseEntity.badRequest().build();
         } else{
-            return ResponseEntity.ok().body(customer);
+            return ETags.ok(customer.getVersion()).body(customer);
         }
     }
 
@@ -41,7 +104,11 @@ public class CustomerController {
         if (newCustomer.getName() == null || newCustomer.getEmail() == null){
             return ResponseEntity.badRequest().build();
         } else {
-            newCustomer = customerService.createCustomer(newCustomer);
+            try {
+                newCustomer = customerService.createCustomer(newCustomer);
+            } catch (DuplicateKeyException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A customer with this email already exists"));
+            }
 
             URI location =
                     ServletUriComponentsBuilder.fromCurrentRequest()
@@ -49,27 +116,105 @@ public class CustomerController {
                             .buildAndExpand(newCustomer.getId())
                             .toUri();
 
-            return ResponseEntity.created(location).body(newCustomer);  // Return the created customer in the body
+            // Signup is open, so the answer must not echo the hash that was sent
+            newCustomer.setPassword(null);
+            return ResponseEntity.created(location).eTag(ETags.of(newCustomer.getVersion())).body(newCustomer);  // Return the created customer in the body
         }
     }
 
+    /**
+     * Create customers without an id and replace those with one. Body is a JSON array or NDJSON;
+     * the response reports the outcome of every item by its position in the body.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResult> bulkSaveCustomers(InputStream body) throws IOException{
+        return ResponseEntity.ok(customerService.bulkSaveCustomers(bulkRequestReader.read(body, Customer.class)));
+    }
+
+    /**
+     * Delete by id. Body is a JSON array of ids or NDJSON of id strings.
+     */
+    @PostMapping(value = "/bulk/delete", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResult> bulkDeleteCustomers(InputStream body) throws IOException{
+        return ResponseEntity.ok(customerService.bulkDeleteCustomers(bulkRequestReader.read(body, String.class)));
+    }
+
+    /**
+     * Replace a customer. With If-Match the write only happens if the customer is still at that
+     * version; otherwise the response is 412 and the client should re-read it.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateCustomer(@RequestBody Customer customer, @PathVariable String id){
+    public ResponseEntity<?> updateCustomer(@RequestBody Customer customer, @PathVariable String id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         if (!Objects.equals(customer.getId(), id) || customer.getName() == null || customer.getEmail() == null){
             return ResponseEntity.badRequest().build();
+        }
+        Customer updated;
+        try {
+            updated = customerService.updateCustomer(customer, id, ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A customer with this email already exists"));
+        }
+        if (updated == null){
+            return ResponseEntity.notFound().build();
+        } else{
+            return ETags.ok(updated.getVersion()).build();
+        }
+    }
+
+    /**
+     * Change only the fields in the body (JSON merge patch: null removes a field) in one
+     * conditional write. Honors If-Match like PUT; the password cannot be patched.
+     */
+    @PatchMapping(value = "/{id}", consumes = {PatchReader.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchCustomer(@RequestBody Map<String, Object> patch, @PathVariable String id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Customer patched;
+        try {
+            patched = customerService.patchCustomer(id, patchReader.read(patch, Customer.class), ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A customer with this email already exists"));
+        }
+        if (patched == null){
+            return ResponseEntity.notFound().build();
+        } else{
+            patched.setPassword(null);
+            return ETags.ok(patched.getVersion()).body(patched);
+        }
+    }
+
+    /**
+     * Replace the password hash; used by the account service to upgrade outdated BCrypt hashes.
+     * Needs the account service's key (see ServiceKey), and only takes a well-formed BCrypt hash.
+     */
+    @PutMapping("/{id}/password")
+    public ResponseEntity<?> updatePassword(@PathVariable String id, @RequestBody Map<String, String> body){
+        String password = body.get("password");
+        if (password == null || !CustomerService.BCRYPT_HASH.matcher(password).matches()){
+            return ResponseEntity.badRequest().body(Map.of("error", "password must be a BCrypt hash"));
+        } else if (!customerService.updatePassword(id, password)){
+            return ResponseEntity.notFound().build();
         } else{
-            customerService.updateCustomer(customer, id);
             return ResponseEntity.ok().build();
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteCustomer(@PathVariable String id){
-        Customer customer = customerService.getCustomerById(id);
-        if (customer == null){
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<?> deleteCustomer(@PathVariable String id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        boolean deleted;
+        try {
+            deleted = customerService.deleteCustomer(id, ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (!deleted){
+            return ResponseEntity.notFound().build();
         } else{
-            customerService.deleteCustomer(id);
             return ResponseEntity.ok().build();
         }
     }
@@ -0,0 +1,100 @@
+package com.capstone.controller;
+
+import com.capstone.dto.PageResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Strong ETags built from document versions. Responses are returned through ok(...), so Spring
+ * compares If-None-Match against the ETag and answers 304 before the body is serialized.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Quoted ETag for one document version, or null for documents written before versioning
+     */
+    static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    static ResponseEntity.BodyBuilder ok(Long version) {
+        return withETag(ResponseEntity.ok(), of(version));
+    }
+
+    /**
+     * ETag of a list: a digest over every element's "id:version" in order. A max version plus
+     * count would miss two documents changing independently, or one being swapped for another.
+     */
+    static <T> ResponseEntity.BodyBuilder list(List<T> items, Function<T, String> keyOf) {
+        return withETag(ResponseEntity.ok(), digest(items, keyOf, ""));
+    }
+
+    /**
+     * ETag of a page: the list digest plus what the page says about its neighbours
+     */
+    static <T> ResponseEntity.BodyBuilder page(PageResponse<T> page, Function<T, String> keyOf) {
+        String suffix = page.getPage() + "|" + page.getSize() + "|" + page.isHasNext() + "|" + page.getNextCursor();
+        return withETag(ResponseEntity.ok(), digest(page.getContent(), keyOf, suffix));
+    }
+
+    /**
+     * List ETag key of a projected document, which always carries id and version
+     */
+    static String key(Map<String, Object> document) {
+        return document.get("id") + ":" + document.get("version");
+    }
+
+    /**
+     * The version a PUT/DELETE must still find, from If-Match. Absent or * means unconditional.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            // Tomcat weakens the ETag of compressed responses; the version behind it is still exact
+            value = value.substring(2);
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match any version");
+        }
+    }
+
+    private static <T> String digest(List<T> items, Function<T, String> keyOf, String suffix) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (T item : items) {
+            digest.update(keyOf.apply(item).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        digest.update(suffix.getBytes(StandardCharsets.UTF_8));
+        // 128 bits is plenty to tell two list states apart
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, String etag) {
+        return etag == null ? builder : builder.eTag(etag);
+    }
+}
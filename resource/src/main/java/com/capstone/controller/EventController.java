@@ -2,13 +2,24 @@ package com.capstone.controller;
 
 
 import com.capstone.domain.Event;
+import com.capstone.dto.BulkResult;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
 import com.capstone.service.EventService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @RestController
@@ -16,14 +27,58 @@ import java.util.Objects;
 public class EventController {
 
     private final EventService eventService;
+    private final NdjsonWriter ndjsonWriter;
+    private final BulkRequestReader bulkRequestReader;
+    private final PatchReader patchReader;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, NdjsonWriter ndjsonWriter, BulkRequestReader bulkRequestReader,
+                           PatchReader patchReader) {
         this.eventService = eventService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkRequestReader = bulkRequestReader;
+        this.patchReader = patchReader;
     }
 
+    /**
+     * List events, optionally filtered by eventName or eventDescription, and with from/to only
+     * those starting in [from, to), sorted by start time.
+     * Adding page/size/sort (or after/size for keyset paging) returns one page.
+     * With ?fields= (comma-separated) each event only has id, version and those fields.
+     */
     @GetMapping
-    public List<Event> getAllEvents() {
-        return eventService.getAllEvents();
+    public ResponseEntity<?> getAllEvents(@RequestParam Map<String, String> params) {
+        PageParams paging = PageParams.from(params);
+        if (paging == null) {
+            List<Map<String, Object>> projected = eventService.findEventFields(params);
+            if (projected != null) {
+                return ETags.list(projected, ETags::key).body(projected);
+            }
+            List<Event> events = eventService.findEvents(params);
+            return ETags.list(events, EventController::etagKey).body(events);
+        } else {
+            PageResponse<Map<String, Object>> projected = eventService.findEventFields(params, paging);
+            if (projected != null) {
+                return ETags.page(projected, ETags::key).body(projected);
+            }
+            PageResponse<Event> page = eventService.findEvents(params, paging);
+            return ETags.page(page, EventController::etagKey).body(page);
+        }
+    }
+
+    /**
+     * Stream the (optionally filtered) events as NDJSON when the client sends Accept: application/x-ndjson
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents(@RequestParam Map<String, String> params) {
+        return ndjsonWriter.stream(() -> eventService.streamEvents(params), Event.class);
+    }
+
+    /**
+     * Same NDJSON stream for clients that cannot set an Accept header
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam Map<String, String> params) {
+        return streamEvents(params);
     }
 
     @GetMapping("/{id}")
@@ -32,14 +87,15 @@ public class EventController {
         if (event == null){
             return ResponseEntity.badRequest().build();
         } else{
-            return ResponseEntity.ok().body(event);
+            return ETags.ok(event.getVersion()).body(event);
         }
     }
 
     @PostMapping
     public ResponseEntity<?> createEvent(@RequestBody Event newEvent){
-        if (newEvent.getEventName() == null || newEvent.getEventDescription() == null || newEvent.getEventStartDate() == null){
-            return ResponseEntity.badRequest().build();
+        String error = EventService.validate(newEvent);
+        if (error != null){
+            return ResponseEntity.badRequest().body(Map.of("error", error));
         } else {
             newEvent = eventService.createEvent(newEvent);
 
@@ -49,28 +105,87 @@ public class EventController {
                             .buildAndExpand(newEvent.getId())
                             .toUri();
 
-            return ResponseEntity.created(location).body(newEvent);  // Return the created customer in the body
+            return ResponseEntity.created(location).eTag(ETags.of(newEvent.getVersion())).body(newEvent);  // Return the created customer in the body
         }
     }
 
+    /**
+     * Create events without an id and replace those with one. Body is a JSON array or NDJSON;
+     * the response reports the outcome of every item by its position in the body.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResult> bulkSaveEvents(InputStream body) throws IOException {
+        return ResponseEntity.ok(eventService.bulkSaveEvents(bulkRequestReader.read(body, Event.class)));
+    }
+
+    /**
+     * Delete by id. Body is a JSON array of ids or NDJSON of id strings.
+     */
+    @PostMapping(value = "/bulk/delete", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResult> bulkDeleteEvents(InputStream body) throws IOException {
+        return ResponseEntity.ok(eventService.bulkDeleteEvents(bulkRequestReader.read(body, String.class)));
+    }
+
+    /**
+     * Replace an event. With If-Match the write only happens if the event is still at that
+     * version, which also changes whenever a seat is taken or given back.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateEvent(@RequestBody Event event, @PathVariable("id") String id){
-        if (!Objects.equals(event.getId(), id) || event.getEventName() == null || event.getEventDescription() == null || event.getEventStartDate() == null){
+    public ResponseEntity<?> updateEvent(@RequestBody Event event, @PathVariable("id") String id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        if (!Objects.equals(event.getId(), id) || EventService.validate(event) != null){
             return ResponseEntity.badRequest().build();
+        }
+        Event updated;
+        try {
+            updated = eventService.updateEvent(event, id, ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (updated == null){
+            return ResponseEntity.notFound().build();
         } else{
-            eventService.updateEvent(event, id);
-            return ResponseEntity.ok().build();
+            return ETags.ok(updated.getVersion()).build();
+        }
+    }
+
+    /**
+     * Change only the fields in the body (JSON merge patch: null removes a field) in one
+     * conditional write. Honors If-Match like PUT.
+     */
+    @PatchMapping(value = "/{id}", consumes = {PatchReader.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchEvent(@RequestBody Map<String, Object> patch, @PathVariable("id") String id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Event patched;
+        try {
+            patched = eventService.patchEvent(id, patchReader.read(patch, Event.class), ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (patched == null){
+            return ResponseEntity.notFound().build();
+        } else{
+            return ETags.ok(patched.getVersion()).body(patched);
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteEvent(@PathVariable("id") String id){
-        Event event = eventService.getEventById(id);
-        if (event == null){
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<?> deleteEvent(@PathVariable("id") String id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        boolean deleted;
+        try {
+            deleted = eventService.deleteEvent(id, ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (!deleted){
+            return ResponseEntity.notFound().build();
         } else{
-            eventService.deleteEvent(id);
             return ResponseEntity.ok().build();
         }
     }
+
+    private static String etagKey(Event event){
+        return event.getId() + ":" + event.getVersion();
+    }
 }
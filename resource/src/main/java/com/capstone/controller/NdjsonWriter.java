@@ -0,0 +1,58 @@
+package com.capstone.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of documents as newline-delimited JSON, one document at a time.
+ * The Mongo cursor is only advanced when the previous document has been handed to the
+ * response, so a slow client slows the cursor down instead of filling the heap.
+ */
+@Component
+public class NdjsonWriter {
+
+    // Flush in batches rather than per document to avoid a write syscall per line
+    private static final int FLUSH_EVERY = 256;
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> documents, Class<T> type) {
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            // The cursor is opened lazily, on the async thread that writes the response, and closed with it
+            try (Stream<T> stream = documents.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                int written = 0;
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.flush();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,37 @@
+package com.capstone.controller;
+
+import com.capstone.dto.Patch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Binds a merge-patch body to its document type with the same Jackson settings as a full body,
+ * so field formats (dates in particular) are accepted exactly as in POST and PUT.
+ */
+@Component
+public class PatchReader {
+
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final ObjectMapper objectMapper;
+
+    public PatchReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> Patch<T> read(Map<String, Object> body, Class<T> type) {
+        if (body == null || body.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patch must change at least one field");
+        }
+        try {
+            return new Patch<>(new LinkedHashSet<>(body.keySet()), objectMapper.convertValue(body, type));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid patch: " + e.getMessage());
+        }
+    }
+}
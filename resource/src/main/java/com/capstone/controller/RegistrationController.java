@@ -1,11 +1,29 @@
 package com.capstone.controller;
 
 import com.capstone.domain.Registration;
+import com.capstone.dto.BulkResult;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.dto.RegistrationWithEvent;
+import com.capstone.security.JwtPrincipal;
+import com.capstone.service.EventFullException;
+import com.capstone.service.EventNotFoundException;
+import com.capstone.service.RegistrationQueueFullException;
 import com.capstone.service.RegistrationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -15,15 +33,60 @@ import java.util.Objects;
 @RequestMapping("/registrations")
 public class RegistrationController {
 
+    private static final Logger log = LoggerFactory.getLogger(RegistrationController.class);
+
     private final RegistrationService registrationService;
+    private final NdjsonWriter ndjsonWriter;
+    private final BulkRequestReader bulkRequestReader;
+    private final PatchReader patchReader;
 
-    public RegistrationController(RegistrationService registrationService) {
+    public RegistrationController(RegistrationService registrationService, NdjsonWriter ndjsonWriter, BulkRequestReader bulkRequestReader,
+                                  PatchReader patchReader) {
         this.registrationService = registrationService;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkRequestReader = bulkRequestReader;
+        this.patchReader = patchReader;
     }
 
+    /**
+     * List registrations, optionally filtered by customerId, eventId, status or eventName.
+     * Adding page/size/sort (or after/size for keyset paging) returns one page.
+     * With ?fields= (comma-separated) each registration only has id, version and those fields.
+     */
     @GetMapping
-    public List<Registration> getAllRegistrations() {
-        return registrationService.getAllRegistrations();
+    public ResponseEntity<?> getAllRegistrations(@RequestParam Map<String, String> params) {
+        PageParams paging = PageParams.from(params);
+        if (paging == null) {
+            List<Map<String, Object>> projected = registrationService.findRegistrationFields(params);
+            if (projected != null) {
+                return ETags.list(projected, ETags::key).body(projected);
+            }
+            List<Registration> registrations = registrationService.findRegistrations(params);
+            return ETags.list(registrations, RegistrationController::etagKey).body(registrations);
+        } else {
+            PageResponse<Map<String, Object>> projected = registrationService.findRegistrationFields(params, paging);
+            if (projected != null) {
+                return ETags.page(projected, ETags::key).body(projected);
+            }
+            PageResponse<Registration> page = registrationService.findRegistrations(params, paging);
+            return ETags.page(page, RegistrationController::etagKey).body(page);
+        }
+    }
+
+    /**
+     * Stream the (optionally filtered) registrations as NDJSON when the client sends Accept: application/x-ndjson
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRegistrations(@RequestParam Map<String, String> params) {
+        return ndjsonWriter.stream(() -> registrationService.streamRegistrations(params), Registration.class);
+    }
+
+    /**
+     * Same NDJSON stream for clients that cannot set an Accept header
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRegistrations(@RequestParam Map<String, String> params) {
+        return streamRegistrations(params);
     }
 
     @GetMapping("/{id}")
@@ -32,24 +95,55 @@ public class RegistrationController {
         if (registration == null) {
             return ResponseEntity.notFound().build();
         } else {
-            return ResponseEntity.ok().body(registration);
+            return ETags.ok(registration.getVersion()).body(registration);
         }
     }
 
+    /**
+     * A customer's registrations; with ?expand=event each one carries its event, fetched in the same query
+     */
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<?> getRegistrationsByCustomerId(@PathVariable("customerId") String customerId) {
+    public ResponseEntity<?> getRegistrationsByCustomerId(@PathVariable("customerId") String customerId,
+                                                          @RequestParam(name = "expand", required = false) String expand) {
+        return customerRegistrations(customerId, expand);
+    }
+
+    /**
+     * The caller's own registrations, by the customerId in their token; takes ?expand=event like above
+     */
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyRegistrations(@AuthenticationPrincipal JwtPrincipal principal,
+                                                @RequestParam(name = "expand", required = false) String expand) {
+        if (principal == null || principal.customerId() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Token carries no customerId, sign in again"));
+        }
+        return customerRegistrations(principal.customerId(), expand);
+    }
+
+    private ResponseEntity<?> customerRegistrations(String customerId, String expand) {
+        if (expand != null && !"event".equals(expand)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported expand value: " + expand));
+        }
         try {
+            if (expand != null) {
+                List<RegistrationWithEvent> registrations = registrationService.getRegistrationsWithEventsByCustomerId(customerId);
+                // The embedded event has its own version, so seat changes also change the ETag
+                return ETags.list(registrations, registration -> registration.getId() + ":" + registration.getVersion()
+                        + ":" + (registration.getEvent() == null ? null : registration.getEvent().getVersion()))
+                        .body(registrations);
+            }
             List<Registration> registrations = registrationService.getRegistrationsByCustomerId(customerId);
-            return ResponseEntity.ok(registrations);
+            return ETags.list(registrations, RegistrationController::etagKey).body(registrations);
         } catch (Exception e) {
-            System.err.println("ERROR: Failed to get registrations for customer " + customerId + ": " + e.getMessage());
+            log.error("Failed to get registrations for customer {}", customerId, e);
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch registrations: " + e.getMessage()));
         }
     }
 
     @GetMapping("/event/{eventId}")
-    public List<Registration> getRegistrationsByEventId(@PathVariable("eventId") String eventId) {
-        return registrationService.getRegistrationsByEventId(eventId);
+    public ResponseEntity<List<Registration>> getRegistrationsByEventId(@PathVariable("eventId") String eventId) {
+        List<Registration> registrations = registrationService.getRegistrationsByEventId(eventId);
+        return ETags.list(registrations, RegistrationController::etagKey).body(registrations);
     }
 
     @PostMapping
@@ -57,35 +151,107 @@ public class RegistrationController {
         if (newRegistration.getCustomerId() == null || newRegistration.getEventId() == null) {
             return ResponseEntity.badRequest().build();
         } else {
-            newRegistration = registrationService.createRegistration(newRegistration);
+            try {
+                newRegistration = registrationService.createRegistration(newRegistration);
+            } catch (EventFullException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+            } catch (EventNotFoundException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            } catch (RegistrationQueueFullException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("error", e.getMessage()));
+            }
 
             URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                     .path("/{id}")
                     .buildAndExpand(newRegistration.getId())
                     .toUri();
 
-            return ResponseEntity.created(location).body(newRegistration);
+            return ResponseEntity.created(location).eTag(ETags.of(newRegistration.getVersion())).body(newRegistration);
         }
     }
 
+    /**
+     * Create registrations, reserving a seat for each. Body is a JSON array or NDJSON;
+     * the response reports the outcome of every item by its position in the body.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResult> bulkCreateRegistrations(InputStream body) throws IOException {
+        return ResponseEntity.ok(registrationService.bulkCreateRegistrations(bulkRequestReader.read(body, Registration.class)));
+    }
+
+    /**
+     * Delete by id. Body is a JSON array of ids or NDJSON of id strings.
+     */
+    @PostMapping(value = "/bulk/delete", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResult> bulkDeleteRegistrations(InputStream body) throws IOException {
+        return ResponseEntity.ok(registrationService.bulkDeleteRegistrations(bulkRequestReader.read(body, String.class)));
+    }
+
+    /**
+     * Replace a registration, moving its seat if the event changes. With If-Match the write only
+     * happens if the registration is still at that version; otherwise the response is 412.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateRegistration(@RequestBody Registration registration, @PathVariable("id") String id) {
+    public ResponseEntity<?> updateRegistration(@RequestBody Registration registration, @PathVariable("id") String id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (!Objects.equals(registration.getId(), id) || registration.getCustomerId() == null || registration.getEventId() == null) {
             return ResponseEntity.badRequest().build();
+        }
+        Registration updated;
+        try {
+            updated = registrationService.updateRegistration(registration, id, ETags.expectedVersion(ifMatch));
+        } catch (EventFullException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (EventNotFoundException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
         } else {
-            registrationService.updateRegistration(registration, id);
-            return ResponseEntity.ok().build();
+            return ETags.ok(updated.getVersion()).build();
+        }
+    }
+
+    /**
+     * Change customerId and/or status only (JSON merge patch) in one conditional write.
+     * Honors If-Match like PUT; moving to another event goes through PUT, which moves the seat.
+     */
+    @PatchMapping(value = "/{id}", consumes = {PatchReader.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchRegistration(@RequestBody Map<String, Object> patch, @PathVariable("id") String id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Registration patched;
+        try {
+            patched = registrationService.patchRegistration(id, patchReader.read(patch, Registration.class), ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (patched == null) {
+            return ResponseEntity.notFound().build();
+        } else {
+            return ETags.ok(patched.getVersion()).body(patched);
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteRegistration(@PathVariable("id") String id) {
-        Registration registration = registrationService.getRegistrationById(id);
-        if (registration == null) {
+    public ResponseEntity<?> deleteRegistration(@PathVariable("id") String id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted;
+        try {
+            deleted = registrationService.deleteRegistration(id, ETags.expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (!deleted) {
             return ResponseEntity.notFound().build();
         } else {
-            registrationService.deleteRegistration(id);
             return ResponseEntity.ok().build();
         }
     }
+
+    private static String etagKey(Registration registration) {
+        return registration.getId() + ":" + registration.getVersion();
+    }
 }
@@ -1,7 +1,10 @@
 package com.capstone.domain;
 
 //import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "customers")
@@ -9,7 +12,10 @@ public class Customer {
     @Id
     private String id;
     private String name;
+    @Indexed(unique = true)
     private String email;
+    // Left out of responses whenever it was not read; only /customers/lookup, for the account service, reads it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String password;
     private String companyName;
     private String location;
@@ -17,6 +23,8 @@ public class Customer {
     private String phoneNumber;
     private String jobTitle;
     private boolean isAdmin = false;
+    @Version
+    private Long version;
 
     public String getId() {
         return id;
@@ -74,4 +82,7 @@ public class Customer {
 
     public void setIsAdmin(boolean admin) { this.isAdmin = admin; }
 
+    public Long getVersion() { return version; }
+
+    public void setVersion(Long version) { this.version = version; }
 }
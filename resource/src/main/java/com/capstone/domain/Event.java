@@ -1,16 +1,29 @@
 package com.capstone.domain;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document(collection = "events")
+// Serves ?from=&to= range queries sorted by start time, with _id as the paging tie-breaker
+@CompoundIndex(name = "eventStartDate_id", def = "{'eventStartDate': 1, '_id': 1}")
 public class Event {
     @Id
     private String id;
     private String eventName;
     private String eventDescription;
     private int eventAvailability;
-    private String eventStartDate;
+    @JsonDeserialize(using = FlexibleInstantDeserializer.class)
+    private Instant eventStartDate;
+    @JsonDeserialize(using = FlexibleInstantDeserializer.class)
+    private Instant eventEndDate;
+    // Bumped by every write; exposed as the ETag and checked against If-Match
+    @Version
+    private Long version;
 
     public String getId() {
         return id;
@@ -44,11 +57,42 @@ public class Event {
         this.eventAvailability = eventAvailability;
     }
 
-    public String getEventStartDate() {
+    public Instant getEventStartDate() {
         return eventStartDate;
     }
 
-    public void setEventStartDate(String eventStartDate) {
+    public void setEventStartDate(Instant eventStartDate) {
         this.eventStartDate = eventStartDate;
     }
+
+    public Instant getEventEndDate() {
+        return eventEndDate;
+    }
+
+    public void setEventEndDate(Instant eventEndDate) {
+        this.eventEndDate = eventEndDate;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * A field-by-field copy, e.g. to hand out a cached event without sharing it
+     */
+    public Event copy() {
+        Event copy = new Event();
+        copy.id = id;
+        copy.eventName = eventName;
+        copy.eventDescription = eventDescription;
+        copy.eventAvailability = eventAvailability;
+        copy.eventStartDate = eventStartDate;
+        copy.eventEndDate = eventEndDate;
+        copy.version = version;
+        return copy;
+    }
 }
@@ -0,0 +1,46 @@
+package com.capstone.domain;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads event times sent as a full ISO-8601 instant ("2026-11-01T18:00:00Z"), a date-time with
+ * offset, a local date-time or a plain date ("2026-11-01", what an HTML date input sends).
+ * Values without an offset are taken as UTC; a plain date means the start of that day.
+ */
+public class FlexibleInstantDeserializer extends JsonDeserializer<Instant> {
+
+    @Override
+    public Instant deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        String text = parser.getValueAsString();
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return parse(text);
+        } catch (DateTimeParseException e) {
+            return (Instant) context.handleWeirdStringValue(Instant.class, text, "not an ISO-8601 date or date-time");
+        }
+    }
+
+    public static Instant parse(String text) {
+        String value = text.trim();
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.capstone.domain;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "registrations")
 public class Registration {
     @Id
     private String id;
+    @Indexed
     private String customerId;
     private String eventId;
     private String eventName;
     private String status;
+    @Version
+    private Long version;
 
     public String getId() {
         return id;
@@ -52,4 +57,11 @@ public class Registration {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,49 @@
+package com.capstone.dto;
+
+/**
+ * Outcome of one item of a bulk request, identified by its position in the request body.
+ */
+public class BulkItemResult {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String NOT_FOUND = "not_found";
+    public static final String FAILED = "failed";
+
+    private final int index;
+    private final String id;
+    private final String status;
+    private final String error;
+
+    public BulkItemResult(int index, String id, String status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkItemResult of(int index, String id, String status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult failed(int index, String id, String error) {
+        return new BulkItemResult(index, id, FAILED, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
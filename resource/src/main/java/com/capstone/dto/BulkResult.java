@@ -0,0 +1,52 @@
+package com.capstone.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary and per-item results of a bulk request.
+ */
+public class BulkResult {
+
+    private int created;
+    private int updated;
+    private int deleted;
+    private int notFound;
+    private int failed;
+    private final List<BulkItemResult> items = new ArrayList<>();
+
+    public void add(BulkItemResult item) {
+        switch (item.getStatus()) {
+            case BulkItemResult.CREATED -> created++;
+            case BulkItemResult.UPDATED -> updated++;
+            case BulkItemResult.DELETED -> deleted++;
+            case BulkItemResult.NOT_FOUND -> notFound++;
+            default -> failed++;
+        }
+        items.add(item);
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,120 @@
+package com.capstone.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Paging parameters of a list request: ?page=&size=&sort=field,asc|desc for offset paging,
+ * or ?after=<last id>&size= for keyset (cursor) paging.
+ * <p>
+ * Spring Data's Pageable and Slice are not used on purpose: Pageable has no notion of a keyset
+ * cursor, its argument resolver silently clamps an oversized or malformed size instead of
+ * answering 400, and the list endpoints read all their parameters (filters included) from one
+ * map, which the controllers check against the known names. A serialized Slice also carries
+ * Spring's internal pageable and sort structure, while PageResponse is the small, stable
+ * shape the frontend pages on. Both builds share these classes.
+ */
+public class PageParams {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+    // Query parameters that control paging rather than filter the list
+    public static final Set<String> NAMES = Set.of("page", "size", "sort", "after");
+
+    private final Integer page;
+    private final int size;
+    private final String sortField;
+    private final boolean descending;
+    private final String after;
+
+    private PageParams(Integer page, int size, String sortField, boolean descending, String after) {
+        this.page = page;
+        this.size = size;
+        this.sortField = sortField;
+        this.descending = descending;
+        this.after = after;
+    }
+
+    /**
+     * Read paging parameters from the query string, or return null if the request is not paged
+     */
+    public static PageParams from(Map<String, String> params) {
+        String page = params.get("page");
+        String size = params.get("size");
+        String after = params.get("after");
+        if (page == null && size == null && after == null) {
+            return null;
+        }
+
+        int pageSize = size == null ? DEFAULT_SIZE : parse("size", size);
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_SIZE);
+        }
+
+        if (after != null) {
+            // Keyset paging walks the _id index (or a service's default sort index), so an explicit sort does not apply
+            return new PageParams(null, pageSize, null, false, after.isBlank() ? null : after);
+        }
+
+        int pageNumber = page == null ? 0 : parse("page", page);
+        if (pageNumber < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must not be negative");
+        }
+
+        String sortField = null;
+        boolean descending = false;
+        String sort = params.get("sort");
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            sortField = parts[0].trim();
+            descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        }
+        return new PageParams(pageNumber, pageSize, sortField, descending, null);
+    }
+
+    private static int parse(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a number");
+        }
+    }
+
+    /**
+     * Same page sorted by the given field, unless the request chose a sort itself. Keyset pages
+     * take it too: they then seek on (field, _id) instead of _id alone.
+     */
+    public PageParams withDefaultSort(String field) {
+        if (sortField != null) {
+            return this;
+        }
+        return new PageParams(page, size, field, false, after);
+    }
+
+    public boolean isKeyset() {
+        return page == null;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+}
@@ -0,0 +1,50 @@
+package com.capstone.dto;
+
+import java.util.List;
+
+/**
+ * One page (slice) of a list response. No total count is computed, so fetching a page
+ * costs the same regardless of collection size; hasNext tells the client whether to go on.
+ */
+public class PageResponse<T> {
+
+    private final List<T> content;
+    private final Integer page;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public PageResponse(List<T> content, Integer page, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Page number in offset mode, null in keyset mode
+     */
+    public Integer getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Value to pass as ?after= for the next page in keyset mode, null otherwise or on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.capstone.dto;
+
+import java.util.Set;
+
+/**
+ * A JSON merge patch (RFC 7396) bound to a document type: the fields the patch names, and their
+ * new values in an otherwise empty document. A named field that is null in changes is removed.
+ */
+public class Patch<T> {
+
+    private final Set<String> fields;
+    private final T changes;
+
+    public Patch(Set<String> fields, T changes) {
+        this.fields = fields;
+        this.changes = changes;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public T getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,74 @@
+package com.capstone.dto;
+
+import com.capstone.domain.Event;
+
+/**
+ * A registration with its event embedded, as returned by ?expand=event.
+ * event is null if the event has been deleted since the registration was made.
+ */
+public class RegistrationWithEvent {
+
+    private String id;
+    private String customerId;
+    private String eventId;
+    private String eventName;
+    private String status;
+    private Long version;
+    private Event event;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public void setEvent(Event event) {
+        this.event = event;
+    }
+}
@@ -0,0 +1,267 @@
+package com.capstone.query;
+
+import com.capstone.domain.FlexibleInstantDeserializer;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * The parts of the filtered and paged list queries that do not depend on how they are run: request
+ * parameter checks, filter criteria, sort orders and turning the size + 1 fetched documents into a
+ * page. Shared by the servlet build's QuerySupport (MongoTemplate) and the reactive build's
+ * ReactiveQuerySupport (ReactiveMongoTemplate), which only add the blocking or reactive execution.
+ */
+public final class ListQueries {
+
+    // The bounds addDateRange reads
+    public static final Set<String> DATE_RANGE_FILTERS = Set.of("from", "to");
+
+    private ListQueries() {
+    }
+
+    /**
+     * Reject any query parameter that is neither one of the resource's filters nor a paging or
+     * ?fields= parameter, so a misspelt filter answers 400 instead of quietly listing everything
+     */
+    @SafeVarargs
+    public static void checkParams(Map<String, String> params, Set<String>... filters) {
+        for (String name : params.keySet()) {
+            if (PageParams.NAMES.contains(name) || name.equals("fields")) {
+                continue;
+            }
+            boolean known = false;
+            for (Set<String> fields : filters) {
+                known |= fields.contains(name);
+            }
+            if (!known) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown filter " + name);
+            }
+        }
+    }
+
+    /**
+     * Add a case-insensitive "contains" criterion for every whitelisted text field present in the request.
+     * An unanchored, case-insensitive regex cannot seek an index, so these filters scan the collection
+     * (or the documents the other criteria leave); the page limit bounds what is returned, not what is
+     * read. That is the search the UI offers on names and descriptions; lookups that need an index,
+     * such as a customer by email, have their own exact-match endpoints.
+     */
+    public static void addTextFilters(Query query, Map<String, String> filters, Set<String> fields) {
+        for (String field : fields) {
+            String value = filters.get(field);
+            if (value != null && !value.isBlank()) {
+                query.addCriteria(Criteria.where(field).regex(Pattern.quote(value.trim()), "i"));
+            }
+        }
+    }
+
+    /**
+     * Add an exact-match criterion for every whitelisted field present in the request
+     */
+    public static void addExactFilters(Query query, Map<String, String> filters, Set<String> fields) {
+        for (String field : fields) {
+            String value = filters.get(field);
+            if (value != null && !value.isBlank()) {
+                query.addCriteria(Criteria.where(field).is(value));
+            }
+        }
+    }
+
+    /**
+     * Add an exact-match criterion on the integer value of every whitelisted numeric field present in the request
+     */
+    public static void addNumberFilters(Query query, Map<String, String> filters, Set<String> fields) {
+        for (String field : fields) {
+            String value = filters.get(field);
+            if (value != null && !value.isBlank()) {
+                query.addCriteria(Criteria.where(field).is(parseInt(field, value)));
+            }
+        }
+    }
+
+    public static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a number");
+        }
+    }
+
+    /**
+     * Add a half-open [from, to) range on a date field for whichever of the two bounds is present.
+     * Returns whether a bound was added.
+     */
+    public static boolean addDateRange(Query query, Map<String, String> filters, String field) {
+        Instant from = parseInstant("from", filters.get("from"));
+        Instant to = parseInstant("to", filters.get("to"));
+        if (from == null && to == null) {
+            return false;
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        Criteria range = Criteria.where(field);
+        if (from != null) {
+            range = range.gte(from);
+        }
+        if (to != null) {
+            range = range.lt(to);
+        }
+        query.addCriteria(range);
+        return true;
+    }
+
+    public static Instant parseInstant(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return FlexibleInstantDeserializer.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an ISO-8601 date or date-time");
+        }
+    }
+
+    /**
+     * Parse a comma-separated ?fields= list against the fields a resource lets clients project.
+     * Returns null if the parameter is absent.
+     */
+    public static Set<String> parseFields(String fields, Set<String> projectableFields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty() || field.equals("id")) {
+                continue;
+            }
+            if (!projectableFields.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field " + field);
+            }
+            parsed.add(field);
+        }
+        return parsed;
+    }
+
+    /**
+     * A projected document in the JSON shape the mapped entity would have: id as a hex string and
+     * dates as Instants
+     */
+    public static Map<String, Object> toResponse(Document document) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        document.forEach((key, value) -> {
+            if (key.equals("_id")) {
+                response.put("id", value instanceof ObjectId objectId ? objectId.toHexString() : value);
+            } else if (value instanceof Date date) {
+                response.put(key, date.toInstant());
+            } else {
+                response.put(key, value);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Sort and window of an offset page, fetching size + 1 documents to learn whether another page
+     * exists instead of counting the whole collection. _id is the tie-breaker that keeps the order
+     * stable across pages.
+     */
+    public static Query offsetPage(Query query, PageParams paging, Set<String> sortableFields) {
+        Sort sort = Sort.by(Sort.Direction.ASC, "_id");
+        if (paging.getSortField() != null) {
+            if (!sortableFields.contains(paging.getSortField())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort by " + paging.getSortField());
+            }
+            sort = Sort.by(paging.isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC, paging.getSortField()).and(sort);
+        }
+        return query.with(sort)
+                .skip((long) paging.getPage() * paging.getSize())
+                .limit(paging.getSize() + 1);
+    }
+
+    /**
+     * Sort and window of a keyset page, in (sort field, _id) order or _id order alone
+     */
+    public static Query keysetPage(Query query, PageParams paging) {
+        Sort sort = Sort.by(Sort.Direction.ASC, "_id");
+        if (paging.getSortField() != null) {
+            sort = Sort.by(Sort.Direction.ASC, paging.getSortField()).and(sort);
+        }
+        return query.with(sort).limit(paging.getSize() + 1);
+    }
+
+    /**
+     * The id a keyset page continues after, or null on the first page
+     */
+    public static ObjectId after(PageParams paging) {
+        if (paging.getAfter() == null) {
+            return null;
+        }
+        if (!ObjectId.isValid(paging.getAfter())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "after must be an id returned as nextCursor");
+        }
+        return new ObjectId(paging.getAfter());
+    }
+
+    /**
+     * Reads back the sort field of the document a keyset cursor names
+     */
+    public static Query cursorLookup(ObjectId after, String sortField) {
+        Query lookup = Query.query(Criteria.where("_id").is(after));
+        lookup.fields().include(sortField);
+        return lookup;
+    }
+
+    public static ResponseStatusException cursorGone() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "after must be an id returned as nextCursor (it may have been deleted; start again)");
+    }
+
+    /**
+     * Everything after the cursor document in (sortField, _id) order. A missing or null value sorts
+     * first, as Mongo orders it.
+     */
+    public static Criteria after(String sortField, Object value, ObjectId after) {
+        if (value == null) {
+            return new Criteria().orOperator(
+                    Criteria.where(sortField).ne(null),
+                    new Criteria().andOperator(Criteria.where(sortField).is(null), Criteria.where("_id").gt(after)));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(sortField).gt(value),
+                new Criteria().andOperator(Criteria.where(sortField).is(value), Criteria.where("_id").gt(after)));
+    }
+
+    /**
+     * The page out of the size + 1 documents an offset or keyset query fetched. A keyset page
+     * carries the last id as the cursor for the next one.
+     */
+    public static <T> PageResponse<T> toPage(List<T> content, PageParams paging, Function<T, String> idOf) {
+        boolean hasNext = content.size() > paging.getSize();
+        if (hasNext) {
+            content = content.subList(0, paging.getSize());
+        }
+        if (!paging.isKeyset()) {
+            return new PageResponse<>(content, paging.getPage(), paging.getSize(), hasNext, null);
+        }
+        String nextCursor = hasNext ? idOf.apply(content.get(content.size() - 1)) : null;
+        return new PageResponse<>(content, null, paging.getSize(), hasNext, nextCursor);
+    }
+}
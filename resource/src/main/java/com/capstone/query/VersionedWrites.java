@@ -0,0 +1,60 @@
+package com.capstone.query;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Set;
+
+/**
+ * The queries and updates of a versioned write, shared by the servlet build's UpdateSupport and the
+ * reactive build's ReactiveQuerySupport: both run them as one conditional write that checks and bumps
+ * the document's version, so If-Match is checked and applied atomically.
+ */
+public final class VersionedWrites {
+
+    public static final String VERSION = "version";
+
+    private VersionedWrites() {
+    }
+
+    /**
+     * _id match, plus the expected version when the client sent one
+     */
+    public static Query byIdAndVersion(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and(VERSION).is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+
+    /**
+     * An update that replaces every mapped field with the item's value ($unset for nulls) and
+     * bumps the version, leaving the untouched fields as they are stored. Unlike a replace it can
+     * carry the $inc, so it works as an upsert too.
+     */
+    public static Update replacement(MongoConverter converter, Object item, Set<String> untouched) {
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(item.getClass());
+        Document document = new Document();
+        converter.write(item, document);
+
+        Update update = new Update();
+        for (MongoPersistentProperty property : entity) {
+            if (property.isIdProperty() || property.isVersionProperty() || untouched.contains(property.getName())) {
+                continue;
+            }
+            String field = property.getFieldName();
+            if (document.containsKey(field)) {
+                update.set(field, document.get(field));
+            } else {
+                update.unset(field);
+            }
+        }
+        return update.inc(VERSION, 1);
+    }
+}
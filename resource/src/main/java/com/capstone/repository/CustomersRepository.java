@@ -3,5 +3,8 @@ package com.capstone.repository;
 import com.capstone.domain.Customer;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Optional;
+
 public interface CustomersRepository extends MongoRepository<Customer, String> {
+    Optional<Customer> findByEmail(String email);
 }
@@ -1,10 +1,14 @@
 package com.capstone.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,13 +17,22 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ServiceKey serviceKey;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
@@ -31,37 +44,66 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         
-        // Allow /customers for authentication and registration purposes (account service needs this)
-        if (requestPath.equals("/customers") && 
-            (request.getMethod().equals("GET") || request.getMethod().equals("POST"))) {
+        // Allow health probes and the Prometheus scrape endpoint
+        if (requestPath.equals("/actuator/health") || requestPath.equals("/actuator/prometheus")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        // The account service authenticates with the shared service key instead of a customer's token
+        String serviceKeyHeader = request.getHeader(ServiceKey.HEADER);
+        if (serviceKey.matches(serviceKeyHeader)) {
+            SecurityContextHolder.getContext().setAuthentication(ServiceKey.authentication());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // The client IP's bucket is taken before any credential is checked, so a flood of bad tokens is limited too
+        if (rateLimited(request, response, requestPath, null,
+                rateLimiter.acquireIp(request.getMethod(), requestPath, request.getRemoteAddr()))) {
+            return;
+        }
+
+        if (serviceKeyHeader != null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("{\"error\":\"Invalid service key\"}");
+            response.setContentType("application/json");
+            return;
+        }
+
+        // Signup is open; the account service's login lookup goes through /customers/lookup with the service key
+        if (requestPath.equals("/customers") && request.getMethod().equals("POST")) {
             filterChain.doFilter(request, response);
             return;
         }
 
         String authorizationHeader = request.getHeader("Authorization");
-        System.out.println("DEBUG: Processing request to " + requestPath + " with auth header: " + (authorizationHeader != null ? "Present" : "Missing"));
+        log.debug("Processing request to {} with auth header {}", requestPath, authorizationHeader != null ? "present" : "missing");
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             String token = authorizationHeader.substring(7);
-            System.out.println("DEBUG: Extracted JWT token: " + token.substring(0, Math.min(50, token.length())) + "...");
-            
             try {
-                boolean isValid = jwtTokenUtil.validateToken(token);
-                System.out.println("DEBUG: JWT validation result: " + isValid);
-                if (isValid) {
-                    String username = jwtTokenUtil.getUsernameFromToken(token);
-                    String email = jwtTokenUtil.getEmailFromToken(token);
+                // Verify once; repeat requests with the same token are served from the verified-token cache
+                Claims claims = jwtTokenUtil.getVerifiedClaims(token);
+                log.debug("JWT validation result for {}: {}", requestPath, claims != null);
+                if (claims != null) {
+                    JwtPrincipal principal = JwtPrincipal.from(claims);
+                    if (rateLimited(request, response, requestPath, principal.subject(),
+                            rateLimiter.acquireSubject(request.getMethod(), requestPath, principal.subject()))) {
+                        return;
+                    }
                     
-                    // Create authentication object
+                    // Create authentication object carrying the claims, so controllers need no lookup
                     Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        username, null, new ArrayList<>());
+                        principal, null, new ArrayList<>());
                     
                     // Set authentication in security context
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     
                     // Add user info to request attributes for potential use in controllers
-                    request.setAttribute("username", username);
-                    request.setAttribute("email", email);
+                    request.setAttribute("username", principal.subject());
+                    request.setAttribute("email", principal.email());
+                    request.setAttribute("customerId", principal.customerId());
                 } else {
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("{\"error\":\"Invalid or expired JWT token\"}");
@@ -83,4 +125,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Answer 429 with Retry-After if the bucket the token was taken from was empty
+     */
+    private boolean rateLimited(HttpServletRequest request, HttpServletResponse response, String requestPath,
+                                String subject, long waitNanos) throws IOException {
+        if (waitNanos == 0) {
+            return false;
+        }
+        log.debug("Rate limited {} {} for subject {} from {}", request.getMethod(), requestPath, subject, request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+        return true;
+    }
 }
@@ -0,0 +1,143 @@
+package com.capstone.security;
+
+import com.capstone.common.PemKeys;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verification keys indexed by key id ("kid"), decoded once and swapped as a whole when the key
+ * directory changes. The account service signs; this side only ever holds public keys and the
+ * shared HMAC secret, so tokens signed with RS256 or EdDSA are checked locally without the secret.
+ * <p>
+ * The HMAC secret is in the ring under {@code jwt.secret.kid} and also checks tokens without a kid.
+ * With {@code jwt.keys.accept-hmac=false} or an empty {@code jwt.secret} it is left out: HS256 tokens
+ * and tokens without a kid are rejected, so only the account service's private keys can mint tokens.
+ * {@code jwt.keys.dir} may add {@code <kid>-public.pem} files (X.509, RSA or Ed25519). The directory is
+ * re-read every {@code jwt.keys.reload-interval}, and right away (at most every 5 seconds) when a
+ * token names a kid that is not known yet, so a newly published key works without a restart.
+ * Signing, active-key selection and private keys only exist in the account service's ring; the PEM
+ * parsing both use is in the shared PemKeys.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final long MIN_FORCED_RELOAD_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final String secretKid;
+    private final Key secretKey;
+    private final Path keyDir;
+    private final long reloadIntervalNanos;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.secret.kid:default}") String secretKid,
+                      @Value("${jwt.keys.accept-hmac:true}") boolean acceptHmac,
+                      @Value("${jwt.keys.dir:}") String keyDir,
+                      @Value("${jwt.keys.reload-interval:1m}") Duration reloadInterval) {
+        this.secretKid = secretKid;
+        this.secretKey = acceptHmac && !secret.isEmpty() ? Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)) : null;
+        this.keyDir = keyDir.isBlank() ? null : Path.of(keyDir);
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.snapshot = load(null);
+    }
+
+    public JwtKeyRing(String secret, String secretKid, String keyDir, Duration reloadInterval) {
+        this(secret, secretKid, true, keyDir, reloadInterval);
+    }
+
+    /**
+     * Key locator for the token parser: the key named by the header's kid, or the HMAC secret for
+     * tokens issued before key ids existed (if HMAC is accepted at all)
+     */
+    public Key locate(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            if (secretKey == null) {
+                throw new UnsupportedJwtException("Tokens without a signing key id are not accepted");
+            }
+            return secretKey;
+        }
+        Snapshot current = snapshot;
+        long age = System.nanoTime() - current.loadedAt();
+        if (age > reloadIntervalNanos) {
+            current = reload(current);
+        }
+        Key key = current.keys().get(kid);
+        if (key == null && age > MIN_FORCED_RELOAD_NANOS) {
+            key = reload(current).keys().get(kid);
+        }
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Re-read the key directory unless another thread is doing so or already did since {@code seen} was taken
+     */
+    private Snapshot reload(Snapshot seen) {
+        if (!reloadLock.tryLock()) {
+            return snapshot;
+        }
+        try {
+            if (snapshot == seen) {
+                snapshot = load(seen);
+            }
+            return snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot load(Snapshot previous) {
+        Map<String, Key> keys = new HashMap<>();
+        if (secretKey != null) {
+            keys.put(secretKid, secretKey);
+        }
+        if (keyDir != null) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(keyDir, "*-public.pem")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    try {
+                        keys.put(name.substring(0, name.length() - "-public.pem".length()), PemKeys.readPublicKey(file));
+                    } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+                        log.warn("Skipping unreadable JWT key file {}: {}", file, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                // Keep verifying with the keys we have; the next reload tries again
+                log.warn("Cannot read JWT key directory {}: {}", keyDir, e.getMessage());
+                if (previous != null) {
+                    return new Snapshot(previous.keys(), System.nanoTime());
+                }
+            }
+        }
+        return new Snapshot(Map.copyOf(keys), System.nanoTime());
+    }
+
+    private record Snapshot(Map<String, Key> keys, long loadedAt) {
+    }
+}
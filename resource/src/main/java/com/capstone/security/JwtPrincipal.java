@@ -0,0 +1,22 @@
+package com.capstone.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.security.Principal;
+
+/**
+ * The verified token's claims, set as the authentication principal by JwtAuthenticationFilter.
+ * Controllers take it with {@code @AuthenticationPrincipal JwtPrincipal} instead of looking the
+ * customer up again. customerId is null for registration tokens issued before they carried it.
+ */
+public record JwtPrincipal(String subject, String email, String customerId) implements Principal {
+
+    public static JwtPrincipal from(Claims claims) {
+        return new JwtPrincipal(claims.getSubject(), claims.get("email", String.class), claims.get("customerId", String.class));
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
@@ -1,40 +1,60 @@
 package com.capstone.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 
 @Component
 public class JwtTokenUtil {
 
-    // Same secret key as account service to validate tokens
-    @Value("${jwt.secret:$This0Is1Our2Secret3For4The5Spring6Project7In8The8Goated9Rap10And11Fox12Training13$}")
-    private String secret;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
+    private final Timer verificationTimer;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Same keys as the account service: its HMAC secret and the public halves of its signing keys
+    public JwtTokenUtil(JwtKeyRing keyRing, VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
+        // The parser is immutable and thread-safe, so build it once; it asks the key ring for each token's kid
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing::locate)
+                .build();
+        this.tokenCache = tokenCache;
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("JWT signature verification and claim parsing (cache misses only)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
      * Validate JWT token - this is the ONLY method the data service needs
      */
     public boolean validateToken(String token) {
+        return getVerifiedClaims(token) != null;
+    }
+
+    /**
+     * Verify the token once and return its claims, or null if it is invalid or expired.
+     * Tokens seen before are answered from the cache without re-checking the signature.
+     */
+    public Claims getVerifiedClaims(String token) {
+        if (token == null) {
+            return null;
+        }
+        return tokenCache.get(token, this::verify);
+    }
+
+    private Claims verify(String token) {
+        Timer.Sample sample = Timer.start();
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (ExpiredJwtException | MalformedJwtException | SignatureException | IllegalArgumentException e) {
-            return false;
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            sample.stop(verificationTimer);
         }
     }
 
@@ -56,10 +76,10 @@ public class JwtTokenUtil {
      * Extract all claims from JWT token
      */
     private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = getVerifiedClaims(token);
+        if (claims == null) {
+            throw new IllegalArgumentException("Invalid or expired JWT token");
+        }
+        return claims;
     }
 }
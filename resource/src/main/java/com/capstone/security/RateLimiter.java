@@ -0,0 +1,238 @@
+package com.capstone.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets per JWT subject and per client IP, with limits configured per route.
+ * <p>
+ * Each bucket is a single "theoretical arrival time" (GCRA): a request is allowed if, after adding
+ * one emission interval, that time is no more than {@code burst} intervals ahead of now. The state
+ * is one AtomicLong per key updated by compare-and-set, so the allowed path takes no lock. A bucket
+ * not used for {@code burst} intervals is full again and means the same as no bucket at all, so the
+ * buckets are kept in a Caffeine cache that expires them after that long without access. The cache
+ * is also bounded to {@code rate-limit.max-keys} per route and key kind; past that Caffeine evicts the
+ * least recently and frequently used keys, never the busy ones.
+ */
+@Component
+public class RateLimiter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final List<Route> routes;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimiter(@Value("${rate-limit.routes:}") String routes,
+                       @Value("${rate-limit.max-keys:100000}") int maxKeys,
+                       MeterRegistry meterRegistry) {
+        this(parseRoutes(routes, maxKeys, System::nanoTime, meterRegistry), System::nanoTime);
+    }
+
+    RateLimiter(List<Route> routes, LongSupplier clock) {
+        this.routes = routes;
+        this.clock = clock;
+    }
+
+    /**
+     * Take one token for this request from the subject's bucket (if authenticated) and the IP's bucket
+     * of the first route that matches. Returns 0 if the request may proceed, otherwise how many
+     * nanoseconds to wait before retrying.
+     */
+    public long acquire(String method, String path, String subject, String ip) {
+        long wait = acquireSubject(method, path, subject);
+        return wait > 0 ? wait : acquireIp(method, path, ip);
+    }
+
+    /**
+     * Take one token from the client IP's bucket of the first route that matches; meant to be called
+     * before the request's credentials are checked. Returns 0 or the nanoseconds to wait, as acquire.
+     */
+    public long acquireIp(String method, String path, String ip) {
+        Route route = route(method, path);
+        if (route == null || ip == null || route.perIp == null) {
+            return 0;
+        }
+        long wait = route.perIp.acquire(ip, clock.getAsLong());
+        if (wait > 0) {
+            route.rejectedByIp.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Take one token from the bucket of an authenticated subject, once its token has been verified.
+     * Returns 0 or the nanoseconds to wait, as acquire.
+     */
+    public long acquireSubject(String method, String path, String subject) {
+        Route route = route(method, path);
+        if (route == null || subject == null || route.perSubject == null) {
+            return 0;
+        }
+        long wait = route.perSubject.acquire(subject, clock.getAsLong());
+        if (wait > 0) {
+            route.rejectedBySubject.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Number of buckets currently held, over all routes
+     */
+    public long size() {
+        long size = 0;
+        for (Route route : routes) {
+            size += route.size();
+        }
+        return size;
+    }
+
+    private Route route(String method, String path) {
+        for (Route route : routes) {
+            if (route.matches(method, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse "rate-limit.routes": routes separated by ';', each "METHOD PATTERN SUBJECT_LIMIT IP_LIMIT"
+     * with limits as "requests-per-second/burst" or "-" for none, e.g.
+     * {@code GET /customers 10/20 50/100; * /** 50/100 200/400}. The first matching route applies.
+     * Each route keeps at most maxKeys buckets per kind of key, expired by the given nanosecond clock.
+     */
+    static List<Route> parseRoutes(String spec, int maxKeys, LongSupplier clock, MeterRegistry meterRegistry) {
+        List<Route> routes = new ArrayList<>();
+        for (String entry : spec.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("\\s+");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("rate-limit.routes entry must be 'METHOD PATTERN SUBJECT_LIMIT IP_LIMIT': " + entry.trim());
+            }
+            routes.add(new Route(parts[0], parts[1], Limit.parse(parts[2]), Limit.parse(parts[3]), maxKeys, clock::getAsLong, meterRegistry));
+        }
+        return List.copyOf(routes);
+    }
+
+    /**
+     * Requests per second and how many may arrive at once on a full bucket
+     */
+    record Limit(double ratePerSecond, int burst) {
+
+        static Limit parse(String value) {
+            if (value.equals("-")) {
+                return null;
+            }
+            int slash = value.indexOf('/');
+            try {
+                Limit limit = slash < 0
+                        ? new Limit(Double.parseDouble(value), Math.max(1, (int) Math.ceil(Double.parseDouble(value))))
+                        : new Limit(Double.parseDouble(value.substring(0, slash)), Integer.parseInt(value.substring(slash + 1)));
+                if (limit.ratePerSecond <= 0 || limit.burst < 1) {
+                    throw new IllegalArgumentException("Rate limit must be positive: " + value);
+                }
+                return limit;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Rate limit must be 'requests-per-second/burst': " + value, e);
+            }
+        }
+    }
+
+    static final class Route {
+
+        private final String method;
+        private final String pattern;
+        private final boolean exact;
+        private final Buckets perSubject;
+        private final Buckets perIp;
+        private final Counter rejectedBySubject;
+        private final Counter rejectedByIp;
+
+        Route(String method, String pattern, Limit perSubject, Limit perIp, int maxKeys, Ticker ticker,
+              MeterRegistry meterRegistry) {
+            this.method = method;
+            this.pattern = pattern;
+            this.exact = !PATHS.isPattern(pattern);
+            this.perSubject = perSubject == null ? null : new Buckets(perSubject, maxKeys, ticker);
+            this.perIp = perIp == null ? null : new Buckets(perIp, maxKeys, ticker);
+            String route = method + " " + pattern;
+            this.rejectedBySubject = Counter.builder("rate.limit.rejected")
+                    .description("Requests answered with 429 by the rate limiter")
+                    .tag("route", route).tag("key", "subject")
+                    .register(meterRegistry);
+            this.rejectedByIp = Counter.builder("rate.limit.rejected")
+                    .description("Requests answered with 429 by the rate limiter")
+                    .tag("route", route).tag("key", "ip")
+                    .register(meterRegistry);
+        }
+
+        boolean matches(String requestMethod, String path) {
+            if (!method.equals("*") && !method.equals(requestMethod)) {
+                return false;
+            }
+            return exact ? pattern.equals(path) : PATHS.match(pattern, path);
+        }
+
+        long size() {
+            return (perSubject == null ? 0 : perSubject.size()) + (perIp == null ? 0 : perIp.size());
+        }
+    }
+
+    /**
+     * One route's buckets for one kind of key, all with the same limit
+     */
+    static final class Buckets {
+
+        private final Cache<String, AtomicLong> states;
+        private final long interval;
+        private final long tolerance;
+
+        Buckets(Limit limit, int maxKeys, Ticker ticker) {
+            this.interval = Math.max(1, (long) (1_000_000_000L / limit.ratePerSecond()));
+            this.tolerance = interval * limit.burst();
+            // After tolerance without a request the arrival time has passed: the bucket is full again
+            this.states = Caffeine.newBuilder()
+                    .expireAfterAccess(Duration.ofNanos(tolerance))
+                    .maximumSize(maxKeys)
+                    .ticker(ticker)
+                    .build();
+        }
+
+        long size() {
+            states.cleanUp();
+            return states.estimatedSize();
+        }
+
+        long acquire(String key, long now) {
+            AtomicLong state = states.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long arrival = state.get();
+                // nanoTime values are only comparable by their difference
+                long next = (arrival - now > 0 ? arrival : now) + interval;
+                long ahead = next - now;
+                if (ahead > tolerance) {
+                    return ahead - tolerance;
+                }
+                if (state.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
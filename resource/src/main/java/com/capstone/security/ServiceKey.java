@@ -0,0 +1,42 @@
+package com.capstone.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Shared secret the account service sends in {@value #HEADER} for the calls only it may make: the
+ * email lookup that returns the password hash, and replacing the hash. A request with the right key
+ * is authenticated with {@value #ROLE}; customers' JWTs never carry it. Without {@code service.key}
+ * configured no request is accepted as the service.
+ */
+@Component
+public class ServiceKey {
+
+    public static final String HEADER = "X-Service-Key";
+    public static final String ROLE = "ROLE_SERVICE";
+
+    private final byte[] key;
+
+    public ServiceKey(@Value("${service.key:}") String key) {
+        this.key = key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the header value is the configured key, compared in constant time
+     */
+    public boolean matches(String header) {
+        return key.length > 0 && header != null
+                && MessageDigest.isEqual(key, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Authentication authentication() {
+        return new UsernamePasswordAuthenticationToken("account-service", null, List.of(new SimpleGrantedAuthority(ROLE)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.capstone.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already-verified JWT claims.
+ * Entries are keyed by a SHA-256 digest of the token (raw tokens are never kept)
+ * and expire at the token's own "exp" claim, so a hit is always still a valid token.
+ * Caffeine bounds it to {@code jwt.cache.max-size}, evicting the least valuable tokens
+ * (by frequency and recency) rather than arbitrary ones.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // null when caching is turned off (max size 0)
+    private final Cache<String, Claims> entries;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.entries = maxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The claims of this token: from the cache if it has been verified before and has not expired,
+     * otherwise from the verifier, which returns null for an invalid token. Verified claims are
+     * remembered; tokens without an expiry are not, they would never leave the cache on their own.
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        if (entries == null) {
+            return verifier.apply(token);
+        }
+        String key = digest(token);
+        Claims claims = entries.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+        claims = verifier.apply(token);
+        if (claims != null && claims.getExpiration() != null) {
+            entries.put(key, claims);
+        }
+        return claims;
+    }
+
+    public long getHitCount() {
+        return entries == null ? 0 : entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries == null ? 0 : entries.stats().missCount();
+    }
+
+    public long size() {
+        if (entries == null) {
+            return 0;
+        }
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Each entry lives until its token's "exp"; reads do not extend it
+     */
+    private static final class UntilExpiration implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.capstone.service;
+
+import com.capstone.dto.BulkItemResult;
+import com.capstone.dto.BulkResult;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Runs bulk imports as unordered Mongo bulkWrites, one chunk of items at a time.
+ * Items are pulled lazily from the request body, so only one chunk is held in memory.
+ */
+@Component
+public class BulkWriter {
+
+    /**
+     * Processes one chunk of a bulk request; offset is the request index of the chunk's first item
+     */
+    @FunctionalInterface
+    interface ChunkHandler<T> {
+        void handle(List<T> chunk, int offset, BulkResult result);
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final int chunkSize;
+
+    public BulkWriter(MongoTemplate mongoTemplate, @Value("${bulk.chunk-size:1000}") int chunkSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Feed the items to the handler chunk by chunk. A body that cannot be parsed stops the
+     * import at the broken item; chunks before it have already been written.
+     */
+    <T> BulkResult run(Iterator<T> items, ChunkHandler<T> handler) {
+        BulkResult result = new BulkResult();
+        int offset = 0;
+        while (true) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            RuntimeException parseError = null;
+            try {
+                while (chunk.size() < chunkSize && items.hasNext()) {
+                    chunk.add(items.next());
+                }
+            } catch (RuntimeException e) {
+                parseError = e;
+            }
+            if (!chunk.isEmpty()) {
+                handler.handle(chunk, offset, result);
+                offset += chunk.size();
+            }
+            if (parseError != null) {
+                result.add(BulkItemResult.failed(offset, null, "Malformed item, import stopped: " + parseError.getMessage()));
+                return result;
+            }
+            if (chunk.size() < chunkSize) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Insert items without an id and replace (or upsert) items that carry one.
+     * validator returns an error message for items that must be skipped, or null.
+     * The untouched fields are never written from an item: a replace keeps them as stored
+     * and a new document is created without them.
+     */
+    <T> BulkResult save(Iterator<T> items, Class<T> type, Function<T, String> idOf,
+                        BiConsumer<T, String> idSetter, Function<T, String> validator, Set<String> untouched) {
+        return run(items, (chunk, offset, result) -> {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            // Bulk errors and upserts are reported by operation index, which differs from the item index when items are skipped
+            List<Integer> itemIndexOfOp = new ArrayList<>();
+            List<String> idOfOp = new ArrayList<>();
+            List<Boolean> insertOp = new ArrayList<>();
+            BulkItemResult[] results = new BulkItemResult[chunk.size()];
+
+            for (int i = 0; i < chunk.size(); i++) {
+                T item = chunk.get(i);
+                String id = idOf.apply(item);
+                String error = validator.apply(item);
+                if (error == null && id != null && !ObjectId.isValid(id)) {
+                    error = "Invalid id " + id;
+                }
+                if (error != null) {
+                    results[i] = BulkItemResult.failed(offset + i, id, error);
+                    continue;
+                }
+                if (id == null) {
+                    // Assign the id up front so it can be reported back per item
+                    id = new ObjectId().toHexString();
+                    idSetter.accept(item, id);
+                    UpdateSupport.initVersion(mongoTemplate, item);
+                    ops.insert(untouched.isEmpty() ? item : UpdateSupport.insertion(mongoTemplate, item, untouched));
+                    insertOp.add(true);
+                } else {
+                    // Field-by-field $set rather than a replace, so the version is bumped in the same write
+                    ops.upsert(Query.query(Criteria.where("_id").is(id)), UpdateSupport.replacement(mongoTemplate, item, untouched));
+                    insertOp.add(false);
+                }
+                itemIndexOfOp.add(i);
+                idOfOp.add(id);
+            }
+
+            if (!itemIndexOfOp.isEmpty()) {
+                Map<Integer, String> errors = new HashMap<>();
+                Set<Integer> upserts = new HashSet<>();
+                execute(ops, errors, upserts);
+                for (int op = 0; op < itemIndexOfOp.size(); op++) {
+                    int i = itemIndexOfOp.get(op);
+                    if (errors.containsKey(op)) {
+                        results[i] = BulkItemResult.failed(offset + i, idOfOp.get(op), errors.get(op));
+                    } else {
+                        boolean created = insertOp.get(op) || upserts.contains(op);
+                        results[i] = BulkItemResult.of(offset + i, idOfOp.get(op), created ? BulkItemResult.CREATED : BulkItemResult.UPDATED);
+                    }
+                }
+            }
+            for (BulkItemResult itemResult : results) {
+                result.add(itemResult);
+            }
+        });
+    }
+
+    /**
+     * Receives the documents a bulk delete chunk found (their _id and the requested fields) and how
+     * many of them the bulk removed. Fewer removed than found means another request deleted some of
+     * them in between.
+     */
+    @FunctionalInterface
+    interface DeleteListener {
+        void deleted(List<Document> found, long deletedCount);
+    }
+
+    /**
+     * Delete documents by id
+     */
+    BulkResult delete(Iterator<String> ids, Class<?> type) {
+        return delete(ids, type, (found, deletedCount) -> {
+        });
+    }
+
+    /**
+     * Delete documents by id with two round trips per chunk: one $in lookup of the ids that exist,
+     * then one unordered bulk remove of those. Each id is reported deleted or not found from the
+     * lookup, so an id that another request deletes at the same moment can be reported deleted by
+     * both; the listener gets the removed count to tell that case apart.
+     */
+    BulkResult delete(Iterator<String> ids, Class<?> type, DeleteListener listener, String... fields) {
+        return run(ids, (chunk, offset, result) -> {
+            List<ObjectId> valid = new ArrayList<>();
+            for (String id : chunk) {
+                if (id != null && ObjectId.isValid(id)) {
+                    valid.add(new ObjectId(id));
+                }
+            }
+
+            Set<String> existing = new HashSet<>();
+            if (!valid.isEmpty()) {
+                Query lookup = Query.query(Criteria.where("_id").in(valid));
+                lookup.fields().include("_id").include(fields);
+                List<Document> found = mongoTemplate.find(lookup, Document.class, mongoTemplate.getCollectionName(type));
+                for (Document document : found) {
+                    existing.add(document.getObjectId("_id").toHexString());
+                }
+                if (!found.isEmpty()) {
+                    BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+                    ops.remove(Query.query(Criteria.where("_id").in(found.stream().map(document -> document.get("_id")).toList())));
+                    listener.deleted(found, ops.execute().getDeletedCount());
+                }
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                String id = chunk.get(i);
+                if (id == null || !ObjectId.isValid(id)) {
+                    result.add(BulkItemResult.failed(offset + i, id, "Invalid id " + id));
+                } else {
+                    // remove() reports a repeated id only once
+                    result.add(BulkItemResult.of(offset + i, id, existing.remove(id) ? BulkItemResult.DELETED : BulkItemResult.NOT_FOUND));
+                }
+            }
+        });
+    }
+
+    /**
+     * Execute the bulk, collecting per-operation errors and upsert indexes instead of failing the whole chunk
+     */
+    void execute(BulkOperations ops, Map<Integer, String> errors, Set<Integer> upserts) {
+        BulkWriteResult writeResult;
+        try {
+            writeResult = ops.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            writeResult = e.getResult();
+        }
+        if (writeResult != null && writeResult.wasAcknowledged()) {
+            for (BulkWriteUpsert upsert : writeResult.getUpserts()) {
+                upserts.add(upsert.getIndex());
+            }
+        }
+    }
+}
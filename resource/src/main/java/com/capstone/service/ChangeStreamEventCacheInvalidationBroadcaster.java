@@ -0,0 +1,159 @@
+package com.capstone.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation across replicas through a Mongo change stream on the events collection (needs a
+ * replica set). Every write to an event, from any node or tool, reaches every node's cache, so
+ * publish has nothing to send. Whenever the stream is (re)opened the whole catalog is dropped,
+ * since changes may have been missed while it was down. An update that only touched
+ * eventAvailability and version (a seat reservation or release) is passed on as a seat change
+ * with the new values, which the caches apply in place. Created and started by FeatureConfig for
+ * {@code events.cache.invalidation=change-stream}; closed with the context.
+ */
+public class ChangeStreamEventCacheInvalidationBroadcaster implements EventCacheInvalidationBroadcaster, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamEventCacheInvalidationBroadcaster.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration retryDelay;
+    private static final Set<String> SEAT_FIELDS = Set.of("eventAvailability", "version");
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final List<SeatListener> seatListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread watcher;
+
+    public ChangeStreamEventCacheInvalidationBroadcaster(MongoTemplate mongoTemplate, Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.retryDelay = retryDelay;
+    }
+
+    public void start() {
+        running = true;
+        watcher = Thread.ofPlatform().daemon().name("event-cache-change-stream").start(this::watch);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            current.close();
+        }
+        watcher.interrupt();
+    }
+
+    @Override
+    public void publish(String eventId) {
+        // The write itself shows up on the change stream of every node
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publishSeats(String eventId, int availability, long version) {
+        // The write itself shows up on the change stream of every node
+    }
+
+    @Override
+    public void subscribeSeats(SeatListener listener) {
+        seatListeners.add(listener);
+    }
+
+    private void watch() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> stream =
+                         mongoTemplate.getCollection("events").watch().cursor()) {
+                cursor = stream;
+                notifyListeners(null);
+                while (running) {
+                    ChangeStreamDocument<Document> change = stream.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    if (change.getOperationType() == OperationType.INVALIDATE) {
+                        // Collection dropped or renamed: this stream is over, open a new one
+                        break;
+                    }
+                    String eventId = idOf(change.getDocumentKey());
+                    if (!notifySeatListeners(eventId, change)) {
+                        notifyListeners(eventId);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Anything that ends the loop (a lost connection, a decode error, a failing listener) reopens
+                // the stream; a dead watcher would leave this node serving stale seat counts
+                if (!running) {
+                    return;
+                }
+                log.warn("Event change stream failed, reopening in {}", retryDelay, e);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void notifyListeners(String eventId) {
+        listeners.forEach(listener -> listener.accept(eventId));
+    }
+
+    /**
+     * Pass an update that only changed the seat count on as a seat change. Returns false for any
+     * other change, which invalidates the event instead.
+     */
+    private boolean notifySeatListeners(String eventId, ChangeStreamDocument<Document> change) {
+        UpdateDescription description = change.getUpdateDescription();
+        if (eventId == null || change.getOperationType() != OperationType.UPDATE || description == null
+                || description.getUpdatedFields() == null
+                || (description.getRemovedFields() != null && !description.getRemovedFields().isEmpty())
+                || !description.getUpdatedFields().keySet().equals(SEAT_FIELDS)) {
+            return false;
+        }
+        BsonValue availability = description.getUpdatedFields().get("eventAvailability");
+        BsonValue version = description.getUpdatedFields().get("version");
+        if (!availability.isNumber() || !version.isNumber()) {
+            return false;
+        }
+        int seats = availability.asNumber().intValue();
+        long newVersion = version.asNumber().longValue();
+        seatListeners.forEach(listener -> listener.seatsChanged(eventId, seats, newVersion));
+        return true;
+    }
+
+    /**
+     * The changed event's id, or null (whole catalog) for changes without one, e.g. a drop
+     */
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey == null ? null : documentKey.get("_id");
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+}
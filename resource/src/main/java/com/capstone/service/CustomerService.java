@@ -1,40 +1,160 @@
 package com.capstone.service;
 
 import com.capstone.domain.Customer;
+import com.capstone.dto.BulkResult;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.dto.Patch;
+import com.capstone.query.ListQueries;
 import com.capstone.repository.CustomersRepository;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class CustomerService {
+    private static final Set<String> TEXT_FILTERS = Set.of("name", "email", "companyName", "location", "jobTitle", "phoneNumber");
+    private static final Set<String> NUMBER_FILTERS = Set.of("employeeCount");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("name", "email", "companyName", "location", "jobTitle", "employeeCount");
+    // password is never projectable, read by the list endpoints or written by a replace
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("name", "email", "companyName", "location", "employeeCount",
+            "phoneNumber", "jobTitle", "isAdmin");
+    private static final Set<String> SECRET_FIELDS = Set.of("password");
+    // What a customer may change about themselves: isAdmin is readable but never client-writable
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "email", "companyName", "location", "employeeCount",
+            "phoneNumber", "jobTitle");
+    // Kept as stored by a replace (single or bulk): the hash only changes through updatePassword, isAdmin never from a request
+    private static final Set<String> UNREPLACEABLE_FIELDS = Set.of("password", "isAdmin");
+    // The only kind of value PUT /customers/{id}/password stores: $2a$, $2b$ or $2y$, cost, 22 salt + 31 hash chars
+    public static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]\\$\\d{2}\\$.{53}$");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("name", "email");
+    // Returned by the list endpoints when the request has no ?fields=
+    private static final Set<String> SUMMARY_FIELDS = Set.of("name", "email", "companyName");
+
     private final CustomersRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
 
-    public CustomerService(CustomersRepository repository) {
+    public CustomerService(CustomersRepository repository, MongoTemplate mongoTemplate, BulkWriter bulkWriter) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.bulkWriter = bulkWriter;
     }
 
     public List<Customer> getAllCustomers() {
         return repository.findAll();
     }
 
+    /**
+     * Matching customers with only the ?fields= requested, or the summary fields (name, email,
+     * companyName) by default. id and version are always included.
+     */
+    public List<Map<String, Object>> findCustomers(Map<String, String> filters) {
+        return QuerySupport.findProjected(mongoTemplate, filterQuery(filters), fields(filters), Customer.class);
+    }
+
+    public PageResponse<Map<String, Object>> findCustomers(Map<String, String> filters, PageParams paging) {
+        return QuerySupport.pageProjected(mongoTemplate, filterQuery(filters), paging, SORTABLE_FIELDS, fields(filters), Customer.class);
+    }
+
+    private static Set<String> fields(Map<String, String> filters) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        return fields == null ? SUMMARY_FIELDS : fields;
+    }
+
+    /**
+     * Open a cursor over the matching customers for streaming export, without password hashes;
+     * the caller must close the stream
+     */
+    public Stream<Customer> streamCustomers(Map<String, String> filters) {
+        Query query = filterQuery(filters).cursorBatchSize(QuerySupport.EXPORT_BATCH_SIZE);
+        query.fields().exclude(SECRET_FIELDS.toArray(String[]::new));
+        return mongoTemplate.stream(query, Customer.class);
+    }
+
+    private Query filterQuery(Map<String, String> filters) {
+        ListQueries.checkParams(filters, TEXT_FILTERS, NUMBER_FILTERS);
+        Query query = new Query();
+        ListQueries.addTextFilters(query, filters, TEXT_FILTERS);
+        ListQueries.addNumberFilters(query, filters, NUMBER_FILTERS);
+        return query;
+    }
+
+    /**
+     * The customer without its password hash
+     */
     public Customer getCustomerById(String id) {
-        return repository.findById(id).orElse(null);
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().exclude(SECRET_FIELDS.toArray(String[]::new));
+        return mongoTemplate.findOne(query, Customer.class);
+    }
+
+    public Customer getCustomerByEmail(String email) {
+        return repository.findByEmail(email).orElse(null);
     }
 
     public Customer createCustomer(Customer customer){
+        // A new customer always starts at version 0
+        customer.setVersion(null);
         return repository.save(customer);
     }
 
-    public void  deleteCustomer(String id){
-        repository.deleteById(id);
+    /**
+     * Create customers without an id and replace those with one, in unordered bulk writes
+     */
+    public BulkResult bulkSaveCustomers(Iterator<Customer> customers) {
+        return bulkWriter.save(customers, Customer.class, Customer::getId, Customer::setId,
+                customer -> customer.getName() == null || customer.getEmail() == null ? "name and email are required" : null,
+                UNREPLACEABLE_FIELDS);
+    }
+
+    public BulkResult bulkDeleteCustomers(Iterator<String> ids) {
+        return bulkWriter.delete(ids, Customer.class);
+    }
+
+    /**
+     * Set a new password hash. Returns false if no such customer exists.
+     */
+    public boolean updatePassword(String id, String passwordHash) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        return mongoTemplate.updateFirst(query, new Update().set("password", passwordHash).inc(UpdateSupport.VERSION, 1), Customer.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Delete the customer, only if it is still at expectedVersion when one is given.
+     * Returns false if no such customer exists; throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public boolean deleteCustomer(String id, Long expectedVersion){
+        return UpdateSupport.delete(mongoTemplate, id, expectedVersion, Customer.class);
     }
 
-    public Customer updateCustomer(Customer customer, String id){
-        if (customer == null || repository.findById(id).isEmpty()) {
+    /**
+     * Replace the customer (but not its password or isAdmin) in one conditional write, only if it is still at
+     * expectedVersion when one is given.
+     * Returns the stored customer, or null if none exists; throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public Customer updateCustomer(Customer customer, String id, Long expectedVersion){
+        if (customer == null) {
             return null;
-        }else{
-            return repository.save(customer);
         }
+        return UpdateSupport.replace(mongoTemplate, id, expectedVersion, customer, Customer.class, UNREPLACEABLE_FIELDS);
+    }
+
+    /**
+     * Apply a merge patch in one conditional write; neither the password nor isAdmin can be patched.
+     * Returns the patched customer, or null if none exists; throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public Customer patchCustomer(String id, Patch<Customer> patch, Long expectedVersion){
+        Update update = UpdateSupport.patch(mongoTemplate, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        return UpdateSupport.modify(mongoTemplate, id, expectedVersion, update, null, null, Customer.class);
     }
 }
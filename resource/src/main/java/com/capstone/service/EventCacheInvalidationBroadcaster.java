@@ -0,0 +1,36 @@
+package com.capstone.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries event cache invalidations between resource-service nodes, so a change made on one
+ * node evicts the event from the catalog cache of every other node too. Seat changes travel as
+ * their own message with the new count, so they update the caches instead of emptying them.
+ */
+public interface EventCacheInvalidationBroadcaster {
+
+    /**
+     * Tell the other nodes that an event changed; null means the whole catalog
+     */
+    void publish(String eventId);
+
+    /**
+     * Register the local cache; the listener receives an event id, or null to drop the whole catalog
+     */
+    void subscribe(Consumer<String> listener);
+
+    /**
+     * Tell the other nodes that only an event's seat count changed, to availability at version
+     */
+    void publishSeats(String eventId, int availability, long version);
+
+    /**
+     * Register the local cache for seat changes
+     */
+    void subscribeSeats(SeatListener listener);
+
+    @FunctionalInterface
+    interface SeatListener {
+        void seatsChanged(String eventId, int availability, long version);
+    }
+}
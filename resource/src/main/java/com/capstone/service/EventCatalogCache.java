@@ -0,0 +1,138 @@
+package com.capstone.service;
+
+import com.capstone.domain.Event;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the event catalog: single events by id and the full list.
+ * Bounded by size and TTL; the TTL also caps how stale an entry can get if an invalidation is lost.
+ * Local writes invalidate through {@link #invalidate}, which also tells the other nodes
+ * via the {@link EventCacheInvalidationBroadcaster}.
+ * <p>
+ * Seat reservations are far more frequent than any other event write, so they do not evict: the
+ * new count and version are kept per event and laid over the cached entries (and the cached list)
+ * when they are read, as long as they are newer than the cached copy. Callers always get their own
+ * copies, so nothing they change on a returned event can leak into the cache.
+ */
+@Component
+public class EventCatalogCache {
+
+    private static final String ALL_EVENTS = "all";
+
+    private final Cache<String, Event> eventsById;
+    private final Cache<String, List<Event>> allEvents;
+    private final EventCacheInvalidationBroadcaster broadcaster;
+    // Seat changes since the cached copies were loaded; dropped with the event's entries
+    private final ConcurrentMap<String, Seats> seats = new ConcurrentHashMap<>();
+
+    public EventCatalogCache(EventCacheInvalidationBroadcaster broadcaster,
+                             @Value("${events.cache.max-size:10000}") long maxSize,
+                             @Value("${events.cache.ttl:5m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.broadcaster = broadcaster;
+        this.eventsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.allEvents = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsById, "events.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, allEvents, "events.all");
+        broadcaster.subscribe(this::evict);
+        broadcaster.subscribeSeats(this::applySeats);
+    }
+
+    /**
+     * A copy of the cached event, loading it on a miss. Missing events (null) are not cached.
+     */
+    public Event get(String id, Function<String, Event> loader) {
+        Event cached = eventsById.get(id, loader);
+        return cached == null ? null : current(cached);
+    }
+
+    /**
+     * Copies of the cached full catalog, loading it on a miss. The list is read-only.
+     */
+    public List<Event> getAll(Supplier<List<Event>> loader) {
+        List<Event> cached = allEvents.get(ALL_EVENTS, key -> Collections.unmodifiableList(loader.get()));
+        return cached.stream().map(this::current).toList();
+    }
+
+    /**
+     * Record an event's new seat count here and on every other node, without evicting it
+     */
+    public void seatsChanged(String eventId, int availability, long version) {
+        applySeats(eventId, availability, version);
+        broadcaster.publishSeats(eventId, availability, version);
+    }
+
+    /**
+     * Drop an event (and the full list it is part of) here and on every other node
+     */
+    public void invalidate(String eventId) {
+        evict(eventId);
+        broadcaster.publish(eventId);
+    }
+
+    /**
+     * Drop the whole catalog here and on every other node, e.g. after a bulk import
+     */
+    public void invalidateAll() {
+        evict(null);
+        broadcaster.publish(null);
+    }
+
+    private void evict(String eventId) {
+        if (eventId == null) {
+            eventsById.invalidateAll();
+            seats.clear();
+        } else {
+            eventsById.invalidate(eventId);
+            seats.remove(eventId);
+        }
+        allEvents.invalidateAll();
+    }
+
+    private void applySeats(String eventId, int availability, long version) {
+        // Changes can arrive out of order; the higher version is the later one
+        seats.merge(eventId, new Seats(availability, version), (old, changed) -> changed.version() > old.version() ? changed : old);
+    }
+
+    /**
+     * A copy of a cached event with any newer seat change applied
+     */
+    private Event current(Event cached) {
+        Event copy = cached.copy();
+        Seats changed = seats.get(cached.getId());
+        if (changed != null && (cached.getVersion() == null || changed.version() > cached.getVersion())) {
+            copy.setEventAvailability(changed.availability());
+            copy.setVersion(changed.version());
+        }
+        return copy;
+    }
+
+    public CacheStats getStats() {
+        return eventsById.stats().plus(allEvents.stats());
+    }
+
+    private record Seats(int availability, long version) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.capstone.service;
+
+/**
+ * Thrown when a registration is attempted for an event that has no seats left.
+ */
+public class EventFullException extends RuntimeException {
+
+    public EventFullException(String eventId) {
+        super("Event " + eventId + " has no seats available");
+    }
+}
@@ -0,0 +1,11 @@
+package com.capstone.service;
+
+/**
+ * Thrown when a registration refers to an event that does not exist.
+ */
+public class EventNotFoundException extends RuntimeException {
+
+    public EventNotFoundException(String eventId) {
+        super("Event " + eventId + " does not exist");
+    }
+}
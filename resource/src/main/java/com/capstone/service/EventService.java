@@ -1,46 +1,221 @@
 package com.capstone.service;
 
 import com.capstone.domain.Event;
+import com.capstone.dto.BulkResult;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.dto.Patch;
+import com.capstone.query.ListQueries;
 import com.capstone.repository.EventRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class EventService {
 
+    private static final Set<String> TEXT_FILTERS = Set.of("eventName", "eventDescription");
+    private static final Set<String> NUMBER_FILTERS = Set.of("eventAvailability");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("eventName", "eventAvailability", "eventStartDate");
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("eventName", "eventDescription", "eventAvailability",
+            "eventStartDate", "eventEndDate");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("eventName", "eventDescription", "eventStartDate");
+    private static final String END_BEFORE_START = "eventEndDate must not be before eventStartDate";
+
     private final EventRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final EventCatalogCache cache;
 
-    public EventService(EventRepository repository) {
+    public EventService(EventRepository repository, MongoTemplate mongoTemplate, BulkWriter bulkWriter,
+                        EventCatalogCache cache) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.bulkWriter = bulkWriter;
+        this.cache = cache;
     }
 
     public List<Event> getAllEvents() {
-        return repository.findAll();
+        return cache.getAll(repository::findAll);
     }
 
-    public Event getEventById(String id) {
-        return repository.findById(id).orElse(null);
+    /**
+     * Events matching the filters; with from/to only those starting in [from, to), in start order
+     */
+    public List<Event> findEvents(Map<String, String> filters) {
+        Query query = filterQuery(filters);
+        if (query.getQueryObject().isEmpty()) {
+            // No filter applies: this is the full catalog
+            return getAllEvents();
+        }
+        if (isDateRange(filters)) {
+            query.with(Sort.by("eventStartDate", "_id"));
+        }
+        return mongoTemplate.find(query, Event.class);
+    }
+
+    public PageResponse<Event> findEvents(Map<String, String> filters, PageParams paging) {
+        return QuerySupport.page(mongoTemplate, filterQuery(filters), pageParams(filters, paging), SORTABLE_FIELDS, Event.class, Event::getId);
+    }
+
+    /**
+     * Projection of findEvents on the ?fields= requested; returns null if the request has none
+     */
+    public List<Map<String, Object>> findEventFields(Map<String, String> filters) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        if (fields == null) {
+            return null;
+        }
+        Query query = filterQuery(filters);
+        if (isDateRange(filters)) {
+            query.with(Sort.by("eventStartDate", "_id"));
+        }
+        return QuerySupport.findProjected(mongoTemplate, query, fields, Event.class);
     }
 
-//    public List<Event> getEventByDate(String date) {
-//        return repository.findByDate(date);
-//    }
+    /**
+     * Projection of a findEvents page on the ?fields= requested; returns null if the request has none
+     */
+    public PageResponse<Map<String, Object>> findEventFields(Map<String, String> filters, PageParams paging) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        if (fields == null) {
+            return null;
+        }
+        return QuerySupport.pageProjected(mongoTemplate, filterQuery(filters), pageParams(filters, paging), SORTABLE_FIELDS, fields, Event.class);
+    }
+
+    private static PageParams pageParams(Map<String, String> filters, PageParams paging) {
+        if (isDateRange(filters)) {
+            // Walk the (eventStartDate, _id) index so a calendar page only reads its own window
+            return paging.withDefaultSort("eventStartDate");
+        }
+        return paging;
+    }
+
+    private static boolean isDateRange(Map<String, String> filters) {
+        return filters.containsKey("from") || filters.containsKey("to");
+    }
+
+    /**
+     * Open a cursor over the matching events for streaming export; the caller must close the stream
+     */
+    public Stream<Event> streamEvents(Map<String, String> filters) {
+        return mongoTemplate.stream(filterQuery(filters).cursorBatchSize(QuerySupport.EXPORT_BATCH_SIZE), Event.class);
+    }
+
+    private Query filterQuery(Map<String, String> filters) {
+        ListQueries.checkParams(filters, TEXT_FILTERS, NUMBER_FILTERS, ListQueries.DATE_RANGE_FILTERS);
+        Query query = new Query();
+        ListQueries.addTextFilters(query, filters, TEXT_FILTERS);
+        ListQueries.addNumberFilters(query, filters, NUMBER_FILTERS);
+        ListQueries.addDateRange(query, filters, "eventStartDate");
+        return query;
+    }
+
+    public Event getEventById(String id) {
+        return cache.get(id, key -> repository.findById(key).orElse(null));
+    }
 
     public Event createEvent(Event event) {
-        return repository.save(event);
+        event.setVersion(null);
+        Event saved = repository.save(event);
+        cache.invalidate(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Create events without an id and replace those with one, in unordered bulk writes
+     */
+    public BulkResult bulkSaveEvents(Iterator<Event> events) {
+        try {
+            return bulkWriter.save(events, Event.class, Event::getId, Event::setId, EventService::validate, Set.of());
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Return why an event cannot be stored, or null if it is valid
+     */
+    public static String validate(Event event) {
+        if (event.getEventName() == null || event.getEventDescription() == null || event.getEventStartDate() == null) {
+            return "eventName, eventDescription and eventStartDate are required";
+        }
+        if (event.getEventEndDate() != null && event.getEventEndDate().isBefore(event.getEventStartDate())) {
+            return END_BEFORE_START;
+        }
+        return null;
+    }
+
+    public BulkResult bulkDeleteEvents(Iterator<String> ids) {
+        try {
+            return bulkWriter.delete(ids, Event.class);
+        } finally {
+            cache.invalidateAll();
+        }
     }
 
-    public Event updateEvent(Event event, String id) {
-        if (event == null || repository.findById(id).isEmpty()) {
+    /**
+     * Replace the event in one conditional write, only if it is still at expectedVersion when one is given.
+     * Returns the stored event, or null if none exists; throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public Event updateEvent(Event event, String id, Long expectedVersion) {
+        if (event == null) {
             return null;
-        }else{
-            return repository.save(event);
         }
+        Event saved = UpdateSupport.replace(mongoTemplate, id, expectedVersion, event, Event.class);
+        cache.invalidate(id);
+        return saved;
+    }
+
+    /**
+     * Apply a merge patch in one conditional write. A patch that moves only one end of the event
+     * carries the date order check as a condition on the stored other end, so it still needs no read.
+     * Returns the patched event, or null if none exists; throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public Event patchEvent(String id, Patch<Event> patch, Long expectedVersion) {
+        Update update = UpdateSupport.patch(mongoTemplate, patch, PROJECTABLE_FIELDS, REQUIRED_FIELDS);
+
+        Instant start = patch.getChanges().getEventStartDate();
+        Instant end = patch.getChanges().getEventEndDate();
+        boolean startPatched = patch.getFields().contains("eventStartDate");
+        boolean endPatched = patch.getFields().contains("eventEndDate");
+        Criteria guard = null;
+        if (startPatched && endPatched) {
+            if (end != null && end.isBefore(start)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, END_BEFORE_START);
+            }
+        } else if (startPatched) {
+            guard = new Criteria().orOperator(Criteria.where("eventEndDate").is(null), Criteria.where("eventEndDate").gte(start));
+        } else if (endPatched && end != null) {
+            guard = Criteria.where("eventStartDate").lte(end);
+        }
+
+        Event patched = UpdateSupport.modify(mongoTemplate, id, expectedVersion, update, guard, END_BEFORE_START, Event.class);
+        cache.invalidate(id);
+        return patched;
     }
 
-    public void deleteEvent(String id) {
-        repository.deleteById(id);
+    /**
+     * Delete the event, only if it is still at expectedVersion when one is given.
+     * Returns false if no such event exists; throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public boolean deleteEvent(String id, Long expectedVersion) {
+        boolean deleted = UpdateSupport.delete(mongoTemplate, id, expectedVersion, Event.class);
+        cache.invalidate(id);
+        return deleted;
     }
 
 
@@ -0,0 +1,36 @@
+package com.capstone.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations to the caches subscribed in the same JVM. This is the default for a
+ * single node; tests can share one instance between several caches to stand in for several nodes.
+ * Created by FeatureConfig for {@code events.cache.invalidation=local}.
+ */
+public class InMemoryEventCacheInvalidationBroadcaster implements EventCacheInvalidationBroadcaster {
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final List<SeatListener> seatListeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String eventId) {
+        listeners.forEach(listener -> listener.accept(eventId));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publishSeats(String eventId, int availability, long version) {
+        seatListeners.forEach(listener -> listener.seatsChanged(eventId, availability, version));
+    }
+
+    @Override
+    public void subscribeSeats(SeatListener listener) {
+        seatListeners.add(listener);
+    }
+}
@@ -0,0 +1,91 @@
+package com.capstone.service;
+
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.query.ListQueries;
+import com.capstone.query.VersionedWrites;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Runs the filtered and paged list queries of the services on MongoTemplate. The filters, sort
+ * orders and page assembly are in ListQueries, shared with the reactive build.
+ */
+final class QuerySupport {
+
+    // Documents per cursor batch when streaming an export
+    static final int EXPORT_BATCH_SIZE = 500;
+
+    private QuerySupport() {
+    }
+
+    /**
+     * Run the query with a projection on the given fields, plus _id and version (needed for ETags),
+     * and return the documents as plain maps, so fields that were not selected are absent rather
+     * than null. Only the selected fields are read from Mongo and written to the response.
+     */
+    static List<Map<String, Object>> findProjected(MongoTemplate mongoTemplate, Query query, Set<String> fields, Class<?> type) {
+        query.fields().include(fields.toArray(String[]::new)).include(VersionedWrites.VERSION);
+        String collection = mongoTemplate.getCollectionName(type);
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, collection)) {
+            documents.add(ListQueries.toResponse(document));
+        }
+        return documents;
+    }
+
+    /**
+     * Run a filter query as one page. Fetches size + 1 documents to learn whether another page
+     * exists instead of counting the whole collection.
+     */
+    static <T> PageResponse<T> page(MongoTemplate mongoTemplate, Query query, PageParams paging,
+                                    Set<String> sortableFields, Class<T> type, Function<T, String> idOf) {
+        return page(mongoTemplate, query, paging, sortableFields, type, pageQuery -> mongoTemplate.find(pageQuery, type), idOf);
+    }
+
+    /**
+     * One page of a projected query, see findProjected
+     */
+    static PageResponse<Map<String, Object>> pageProjected(MongoTemplate mongoTemplate, Query query, PageParams paging,
+                                                           Set<String> sortableFields, Set<String> fields, Class<?> type) {
+        return page(mongoTemplate, query, paging, sortableFields, type, pageQuery -> findProjected(mongoTemplate, pageQuery, fields, type),
+                document -> (String) document.get("id"));
+    }
+
+    private static <T> PageResponse<T> page(MongoTemplate mongoTemplate, Query query, PageParams paging,
+                                            Set<String> sortableFields, Class<?> type,
+                                            Function<Query, List<T>> find, Function<T, String> idOf) {
+        if (!paging.isKeyset()) {
+            return ListQueries.toPage(find.apply(ListQueries.offsetPage(query, paging, sortableFields)), paging, idOf);
+        }
+        // Keyset page: seek past the last id of the previous page on the _id index, so deep pages
+        // cost the same as the first one. With a sort field (a default the service chose, such as
+        // eventStartDate for date ranges) the page seeks past the previous page's last (field, _id)
+        // instead, so it walks that compound index in the same order as the offset pages; the cursor
+        // is still just the last id, whose field value is read back with one _id lookup.
+        ObjectId after = ListQueries.after(paging);
+        if (after != null) {
+            String sortField = paging.getSortField();
+            if (sortField == null) {
+                query.addCriteria(Criteria.where("_id").gt(after));
+            } else {
+                Document cursor = mongoTemplate.findOne(ListQueries.cursorLookup(after, sortField), Document.class,
+                        mongoTemplate.getCollectionName(type));
+                if (cursor == null) {
+                    throw ListQueries.cursorGone();
+                }
+                query.addCriteria(ListQueries.after(sortField, cursor.get(sortField), after));
+            }
+        }
+        return ListQueries.toPage(find.apply(ListQueries.keysetPage(query, paging)), paging, idOf);
+    }
+}
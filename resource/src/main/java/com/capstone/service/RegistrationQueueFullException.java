@@ -0,0 +1,11 @@
+package com.capstone.service;
+
+/**
+ * Thrown when the registration write pipeline cannot take another insert, or write it, in time.
+ */
+public class RegistrationQueueFullException extends RuntimeException {
+
+    public RegistrationQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,58 +1,406 @@
 package com.capstone.service;
 
+import com.capstone.domain.Event;
 import com.capstone.domain.Registration;
+import com.capstone.dto.BulkItemResult;
+import com.capstone.dto.BulkResult;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.dto.Patch;
+import com.capstone.dto.RegistrationWithEvent;
+import com.capstone.query.ListQueries;
 import com.capstone.repository.RegistrationRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 @Service
 public class RegistrationService {
 
+    private static final Logger log = LoggerFactory.getLogger(RegistrationService.class);
+
+    private static final Set<String> EXACT_FILTERS = Set.of("customerId", "eventId", "status");
+    private static final Set<String> TEXT_FILTERS = Set.of("eventName");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("customerId", "eventId", "eventName", "status");
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("customerId", "eventId", "eventName", "status");
+    // Moving to another event takes and gives back seats, so eventId only changes through PUT
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("customerId", "status");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("customerId");
+
     private final RegistrationRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final EventCatalogCache eventCache;
+    // Only present with registrations.write-pipeline.enabled=true
+    private final RegistrationWritePipeline writePipeline;
 
-    public RegistrationService(RegistrationRepository repository) {
+    public RegistrationService(RegistrationRepository repository, MongoTemplate mongoTemplate, BulkWriter bulkWriter,
+                               EventCatalogCache eventCache, ObjectProvider<RegistrationWritePipeline> writePipeline) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.bulkWriter = bulkWriter;
+        this.eventCache = eventCache;
+        this.writePipeline = writePipeline.getIfAvailable();
     }
 
     public List<Registration> getAllRegistrations() {
         return repository.findAll();
     }
 
+    public List<Registration> findRegistrations(Map<String, String> filters) {
+        return mongoTemplate.find(filterQuery(filters), Registration.class);
+    }
+
+    public PageResponse<Registration> findRegistrations(Map<String, String> filters, PageParams paging) {
+        return QuerySupport.page(mongoTemplate, filterQuery(filters), paging, SORTABLE_FIELDS, Registration.class, Registration::getId);
+    }
+
+    /**
+     * Projection of findRegistrations on the ?fields= requested; returns null if the request has none
+     */
+    public List<Map<String, Object>> findRegistrationFields(Map<String, String> filters) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        return fields == null ? null : QuerySupport.findProjected(mongoTemplate, filterQuery(filters), fields, Registration.class);
+    }
+
+    /**
+     * Projection of a findRegistrations page on the ?fields= requested; returns null if the request has none
+     */
+    public PageResponse<Map<String, Object>> findRegistrationFields(Map<String, String> filters, PageParams paging) {
+        Set<String> fields = ListQueries.parseFields(filters.get("fields"), PROJECTABLE_FIELDS);
+        return fields == null ? null
+                : QuerySupport.pageProjected(mongoTemplate, filterQuery(filters), paging, SORTABLE_FIELDS, fields, Registration.class);
+    }
+
+    /**
+     * Open a cursor over the matching registrations for streaming export; the caller must close the stream
+     */
+    public Stream<Registration> streamRegistrations(Map<String, String> filters) {
+        return mongoTemplate.stream(filterQuery(filters).cursorBatchSize(QuerySupport.EXPORT_BATCH_SIZE), Registration.class);
+    }
+
+    private Query filterQuery(Map<String, String> filters) {
+        ListQueries.checkParams(filters, EXACT_FILTERS, TEXT_FILTERS);
+        Query query = new Query();
+        ListQueries.addExactFilters(query, filters, EXACT_FILTERS);
+        ListQueries.addTextFilters(query, filters, TEXT_FILTERS);
+        return query;
+    }
+
     public Registration getRegistrationById(String id) {
         return repository.findById(id).orElse(null);
     }
 
     public List<Registration> getRegistrationsByCustomerId(String customerId){
-        try {
-            System.out.println("DEBUG: Fetching registrations for customer ID: " + customerId);
-            List<Registration> registrations = repository.findByCustomerId(customerId);
-            System.out.println("DEBUG: Found " + (registrations != null ? registrations.size() : 0) + " registrations");
-            return registrations;
-        } catch (Exception e) {
-            System.err.println("ERROR: Failed to fetch registrations for customer " + customerId + ": " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        List<Registration> registrations = repository.findByCustomerId(customerId);
+        log.debug("Found {} registrations for customer {}", registrations.size(), customerId);
+        return registrations;
+    }
+
+    /**
+     * A customer's registrations with their event embedded, in one aggregation instead of one
+     * event lookup per registration. eventId is stored as a string, so it is converted to an
+     * ObjectId first and the $lookup is a plain equality match on the events _id index.
+     * event is null when the event no longer exists.
+     */
+    public List<RegistrationWithEvent> getRegistrationsWithEventsByCustomerId(String customerId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("customerId").is(customerId)),
+                context -> new Document("$addFields", new Document("eventObjectId",
+                        new Document("$convert", new Document("input", "$eventId")
+                                .append("to", "objectId")
+                                .append("onError", null)
+                                .append("onNull", null)))),
+                context -> new Document("$lookup", new Document("from", "events")
+                        .append("localField", "eventObjectId")
+                        .append("foreignField", "_id")
+                        .append("as", "event")),
+                context -> new Document("$unwind", new Document("path", "$event")
+                        .append("preserveNullAndEmptyArrays", true)),
+                context -> new Document("$project", new Document("eventObjectId", 0)));
+        return mongoTemplate.aggregate(aggregation, "registrations", RegistrationWithEvent.class).getMappedResults();
     }
 
     public List<Registration> getRegistrationsByEventId(String eventId){
         return repository.findByEventId(eventId);
     }
 
-    public void deleteRegistration(String id){
-        repository.deleteById(id);
+    /**
+     * Delete a registration and give its seat back to the event, only if it is still at
+     * expectedVersion when one is given. Returns false if no such registration exists;
+     * throws OptimisticLockingFailureException on a version mismatch.
+     */
+    public boolean deleteRegistration(String id, Long expectedVersion){
+        Registration removed = UpdateSupport.remove(mongoTemplate, id, expectedVersion, Registration.class);
+        if (removed == null) {
+            return false;
+        }
+        releaseSeats(removed.getEventId(), 1);
+        return true;
     }
 
+    /**
+     * Take a seat and insert the registration. The seat is taken with a single conditional
+     * findAndModify, so concurrent registrations can never oversell an event and no JVM lock is held.
+     * With the write pipeline enabled the insert is grouped with concurrent ones into one bulkWrite.
+     */
     public Registration createRegistration(Registration registration) {
-        return repository.save(registration);
+        registration.setVersion(null);
+        Event event = reserveSeats(registration.getEventId(), 1);
+        registration.setEventName(event.getEventName());
+        try {
+            return insert(registration);
+        } catch (RuntimeException e) {
+            releaseSeats(registration.getEventId(), 1);
+            throw e;
+        }
+    }
+
+    private Registration insert(Registration registration) {
+        if (writePipeline == null) {
+            return repository.insert(registration);
+        }
+        try {
+            // Bounded by registrations.write-pipeline.write-timeout; the caller then releases the seat
+            return writePipeline.submit(registration).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new RegistrationQueueFullException("Registration write timed out, try again shortly");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Bulk-create registrations. Seats are reserved per event with one conditional update for the
+     * whole group where possible, then the registrations are inserted in one unordered bulkWrite.
+     */
+    public BulkResult bulkCreateRegistrations(Iterator<Registration> registrations) {
+        return bulkWriter.run(registrations, this::createRegistrationChunk);
+    }
+
+    /**
+     * Bulk-delete registrations with one lookup and one bulk remove per chunk, then give the seats
+     * back with one update per event. If another request deleted some of the found registrations in
+     * between, the bulk removed fewer than were found and it is not known which; each event then gets
+     * back at most the seats this request can have freed, so a seat is never given back twice.
+     */
+    public BulkResult bulkDeleteRegistrations(Iterator<String> ids) {
+        return bulkWriter.delete(ids, Registration.class, (found, deletedCount) -> {
+            Map<String, Integer> seatsByEvent = new LinkedHashMap<>();
+            for (Document registration : found) {
+                String eventId = registration.getString("eventId");
+                if (eventId != null) {
+                    seatsByEvent.merge(eventId, 1, Integer::sum);
+                }
+            }
+            long deletedElsewhere = found.size() - deletedCount;
+            seatsByEvent.forEach((eventId, seats) -> {
+                int freed = (int) Math.max(0, seats - deletedElsewhere);
+                if (freed > 0) {
+                    releaseSeats(eventId, freed);
+                }
+            });
+        }, "eventId");
+    }
+
+    private void createRegistrationChunk(List<Registration> chunk, int offset, BulkResult result) {
+        BulkItemResult[] results = new BulkItemResult[chunk.size()];
+
+        // Group the valid items by event so each event is touched once
+        Map<String, List<Integer>> byEvent = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Registration registration = chunk.get(i);
+            if (registration.getId() != null) {
+                results[i] = BulkItemResult.failed(offset + i, registration.getId(), "Bulk import only creates registrations; update existing ones individually");
+            } else if (registration.getCustomerId() == null || registration.getEventId() == null) {
+                results[i] = BulkItemResult.failed(offset + i, null, "customerId and eventId are required");
+            } else {
+                byEvent.computeIfAbsent(registration.getEventId(), eventId -> new ArrayList<>()).add(i);
+            }
+        }
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Registration.class);
+        List<Integer> itemIndexOfOp = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> group : byEvent.entrySet()) {
+            List<Integer> seated = reserveSeatsForGroup(group.getKey(), group.getValue(), chunk, offset, results);
+            for (int i : seated) {
+                Registration registration = chunk.get(i);
+                registration.setId(new ObjectId().toHexString());
+                ops.insert(registration);
+                itemIndexOfOp.add(i);
+            }
+        }
+
+        if (!itemIndexOfOp.isEmpty()) {
+            Map<Integer, String> errors = new HashMap<>();
+            bulkWriter.execute(ops, errors, new HashSet<>());
+            Map<String, Integer> seatsToRelease = new HashMap<>();
+            for (int op = 0; op < itemIndexOfOp.size(); op++) {
+                int i = itemIndexOfOp.get(op);
+                Registration registration = chunk.get(i);
+                if (errors.containsKey(op)) {
+                    results[i] = BulkItemResult.failed(offset + i, null, errors.get(op));
+                    seatsToRelease.merge(registration.getEventId(), 1, Integer::sum);
+                } else {
+                    results[i] = BulkItemResult.of(offset + i, registration.getId(), BulkItemResult.CREATED);
+                }
+            }
+            seatsToRelease.forEach(this::releaseSeats);
+        }
+
+        for (BulkItemResult itemResult : results) {
+            result.add(itemResult);
+        }
     }
 
-    public Registration updateRegistration(Registration registration, String id) {
-        if(registration == null || repository.findById(id).isEmpty()) {
+    /**
+     * Reserve seats for all registrations of one event in a single conditional update. If the event
+     * cannot take the whole group, fall back to one seat at a time until it is full, in request order.
+     * Returns the indexes that got a seat; the others are marked failed.
+     */
+    private List<Integer> reserveSeatsForGroup(String eventId, List<Integer> indexes, List<Registration> chunk,
+                                               int offset, BulkItemResult[] results) {
+        List<Integer> seated = new ArrayList<>();
+        try {
+            Event event = reserveSeats(eventId, indexes.size());
+            indexes.forEach(i -> chunk.get(i).setEventName(event.getEventName()));
+            return indexes;
+        } catch (EventFullException e) {
+            boolean full = false;
+            for (int i : indexes) {
+                if (!full) {
+                    try {
+                        Event event = reserveSeats(eventId, 1);
+                        chunk.get(i).setEventName(event.getEventName());
+                        seated.add(i);
+                        continue;
+                    } catch (EventFullException soldOut) {
+                        full = true;
+                    }
+                }
+                results[i] = BulkItemResult.failed(offset + i, null, e.getMessage());
+            }
+        } catch (EventNotFoundException e) {
+            indexes.forEach(i -> results[i] = BulkItemResult.failed(offset + i, null, e.getMessage()));
+        }
+        return seated;
+    }
+
+    /**
+     * Replace the registration, only if it is still at expectedVersion when one is given.
+     * Returns the stored registration, or null if none exists; throws OptimisticLockingFailureException
+     * on a version mismatch.
+     */
+    public Registration updateRegistration(Registration registration, String id, Long expectedVersion) {
+        if (registration == null) {
+            return null;
+        }
+        // Same event, the usual case: one conditional write, no seats involved
+        Query sameEvent = UpdateSupport.byIdAndVersion(id, expectedVersion)
+                .addCriteria(Criteria.where("eventId").is(registration.getEventId()));
+        Registration updated = mongoTemplate.findAndModify(sameEvent, UpdateSupport.replacement(mongoTemplate, registration),
+                FindAndModifyOptions.options().returnNew(true), Registration.class);
+        if (updated != null) {
+            return updated;
+        }
+
+        Registration existing = repository.findById(id).orElse(null);
+        if (existing == null) {
             return null;
-        } else{
-            return repository.save(registration);
+        }
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new OptimisticLockingFailureException("Registration " + id + " is no longer at version " + expectedVersion);
+        }
+        if (Objects.equals(existing.getEventId(), registration.getEventId())) {
+            // It was moved back to this event in between
+            return UpdateSupport.replace(mongoTemplate, id, existing.getVersion(), registration, Registration.class);
+        }
+
+        // Moving to another event: take the new seat before giving the old one back. Without If-Match
+        // the write is still pinned to the version read above, so a concurrent move cannot free a seat twice.
+        Long version = expectedVersion != null ? expectedVersion : existing.getVersion();
+        reserveSeats(registration.getEventId(), 1);
+        try {
+            updated = UpdateSupport.replace(mongoTemplate, id, version, registration, Registration.class);
+        } catch (RuntimeException e) {
+            releaseSeats(registration.getEventId(), 1);
+            throw e;
+        }
+        if (updated == null) {
+            releaseSeats(registration.getEventId(), 1);
+            return null;
+        }
+        releaseSeats(existing.getEventId(), 1);
+        return updated;
+    }
+
+    /**
+     * Apply a merge patch to customerId and/or status in one conditional write.
+     * Returns the patched registration, or null if none exists; throws OptimisticLockingFailureException
+     * on a version mismatch.
+     */
+    public Registration patchRegistration(String id, Patch<Registration> patch, Long expectedVersion) {
+        Update update = UpdateSupport.patch(mongoTemplate, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        return UpdateSupport.modify(mongoTemplate, id, expectedVersion, update, null, null, Registration.class);
+    }
+
+    /**
+     * Atomically decrement eventAvailability by the number of seats, but only if that many are left.
+     * Returns the updated event, or throws if the event is full or does not exist.
+     * Seat changes update the event's count in the catalog cache instead of evicting it, so the
+     * cached catalog stays current without being reloaded after every reservation.
+     */
+    Event reserveSeats(String eventId, int seats) {
+        Query query = Query.query(Criteria.where("_id").is(eventId).and("eventAvailability").gte(seats));
+        Update update = new Update().inc("eventAvailability", -seats).inc(UpdateSupport.VERSION, 1);
+        Event event = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Event.class);
+        if (event != null) {
+            eventCache.seatsChanged(eventId, event.getEventAvailability(), event.getVersion());
+            return event;
+        }
+        // Only the failure path pays for telling "full" apart from "no such event"
+        if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(eventId)), Event.class)) {
+            throw new EventNotFoundException(eventId);
+        }
+        throw new EventFullException(eventId);
+    }
+
+    void releaseSeats(String eventId, int seats) {
+        Event event = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(eventId)),
+                new Update().inc("eventAvailability", seats).inc(UpdateSupport.VERSION, 1),
+                FindAndModifyOptions.options().returnNew(true), Event.class);
+        if (event != null) {
+            eventCache.seatsChanged(eventId, event.getEventAvailability(), event.getVersion());
+        } else {
+            eventCache.invalidate(eventId);
         }
     }
 }
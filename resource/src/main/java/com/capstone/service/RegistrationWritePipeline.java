@@ -0,0 +1,199 @@
+package com.capstone.service;
+
+import com.capstone.domain.Registration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for registration inserts: concurrent inserts are queued and one writer thread
+ * writes them together in a single unordered bulkWrite, so a ticket drop costs one Mongo round
+ * trip per batch instead of one per registration. A batch is written once it has
+ * {@code max-batch-size} inserts or {@code window} has passed since its first one; whatever is
+ * already queued goes into the current batch without waiting, so the window only adds latency
+ * when traffic is light.
+ * <p>
+ * The queue is bounded. When it is full, submit waits up to {@code enqueue-timeout} for room and
+ * then fails with {@link RegistrationQueueFullException}, so a burst slows callers down instead of
+ * piling up unbounded work. A caller also gives up after {@code write-timeout}; its insert is then
+ * skipped, or removed again if it was already being written, so the seat it gives back stays free.
+ * A batch that fails for any reason fails its callers only; the writer goes on with the next one.
+ * <p>
+ * Created and started by FeatureConfig when {@code registrations.write-pipeline.enabled=true}.
+ */
+public class RegistrationWritePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationWritePipeline.class);
+
+    // How often an idle writer checks whether it is being stopped
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long enqueueTimeoutNanos;
+    private final long writeTimeoutNanos;
+    private final BlockingQueue<PendingInsert> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private volatile boolean running;
+    private Thread writer;
+
+    public RegistrationWritePipeline(MongoTemplate mongoTemplate, BulkWriter bulkWriter, Duration window, int maxBatchSize,
+                                     int queueCapacity, Duration enqueueTimeout, Duration writeTimeout,
+                                     MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.bulkWriter = bulkWriter;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("registrations.write.pipeline.batch.size")
+                .description("Registrations written per bulkWrite")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("registrations.write.pipeline.rejected")
+                .description("Registrations rejected because the write queue stayed full")
+                .register(meterRegistry);
+        meterRegistry.gauge("registrations.write.pipeline.queued", queue, BlockingQueue::size);
+    }
+
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("registration-write-pipeline").start(this::writeLoop);
+    }
+
+    /**
+     * Stop taking inserts, let the writer finish the batch it has and fail whatever is still queued
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingInsert> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.result().completeExceptionally(
+                new RegistrationQueueFullException("Registration writes are shutting down")));
+    }
+
+    /**
+     * Queue the registration for the next batch. The future completes with the stored registration
+     * (its id and version set), with the exception its insert failed with, or with a TimeoutException
+     * after write-timeout, in which case the registration is not kept.
+     */
+    public CompletableFuture<Registration> submit(Registration registration) {
+        PendingInsert pending = new PendingInsert(registration, new CompletableFuture<>());
+        boolean queued;
+        try {
+            queued = running && queue.offer(pending, enqueueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        // Stopped while waiting for room: the final drain in stop() may already have run
+        if (queued && !running && queue.remove(pending)) {
+            queued = false;
+        }
+        if (!queued) {
+            rejected.increment();
+            pending.result().completeExceptionally(new RegistrationQueueFullException(
+                    "Too many registrations in progress, try again shortly"));
+        }
+        return pending.result().orTimeout(writeTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void writeLoop() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Only stop() ends the loop; write what was collected
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (Throwable e) {
+                    // Fail this batch's callers (those still waiting) and keep the writer going
+                    log.warn("Registration bulkWrite of {} inserts failed: {}", batch.size(), e.toString());
+                    batch.forEach(pending -> pending.result().completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        // Callers that timed out already gave their seat back
+        batch.removeIf(pending -> pending.result().isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Registration.class);
+        for (PendingInsert pending : batch) {
+            Registration registration = pending.registration();
+            if (registration.getId() == null) {
+                // Assigned up front so every caller gets its own document back
+                registration.setId(new ObjectId().toHexString());
+            }
+            UpdateSupport.initVersion(mongoTemplate, registration);
+            ops.insert(registration);
+        }
+
+        Map<Integer, String> errors = new HashMap<>();
+        bulkWriter.execute(ops, errors, new HashSet<>());
+        batchSizes.record(batch.size());
+        List<String> abandoned = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingInsert pending = batch.get(i);
+            String error = errors.get(i);
+            if (error != null) {
+                pending.result().completeExceptionally(new DataIntegrityViolationException(error));
+            } else if (!pending.result().complete(pending.registration())) {
+                // Timed out while being written
+                abandoned.add(pending.registration().getId());
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(abandoned)), Registration.class);
+        }
+    }
+
+    private record PendingInsert(Registration registration, CompletableFuture<Registration> result) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.capstone.service;
+
+import com.capstone.dto.Patch;
+import com.capstone.query.VersionedWrites;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+
+/**
+ * Shared helpers for versioned writes. Every write goes through a single conditional
+ * update or delete that also bumps the document's version, so If-Match is checked and
+ * applied atomically. The query and update themselves come from VersionedWrites, shared
+ * with the reactive build.
+ */
+final class UpdateSupport {
+
+    static final String VERSION = VersionedWrites.VERSION;
+
+    private UpdateSupport() {
+    }
+
+    static Query byIdAndVersion(String id, Long expectedVersion) {
+        return VersionedWrites.byIdAndVersion(id, expectedVersion);
+    }
+
+    /**
+     * See VersionedWrites.replacement
+     */
+    static Update replacement(MongoTemplate mongoTemplate, Object item) {
+        return replacement(mongoTemplate, item, Set.of());
+    }
+
+    static Update replacement(MongoTemplate mongoTemplate, Object item, Set<String> untouched) {
+        return VersionedWrites.replacement(mongoTemplate.getConverter(), item, untouched);
+    }
+
+    /**
+     * The item as a document to insert, without the untouched fields: a new document gets none of
+     * them from the client either
+     */
+    static Document insertion(MongoTemplate mongoTemplate, Object item, Set<String> untouched) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(item.getClass());
+        Document document = new Document();
+        mongoTemplate.getConverter().write(item, document);
+        for (String name : untouched) {
+            MongoPersistentProperty property = entity.getPersistentProperty(name);
+            if (property != null) {
+                document.remove(property.getFieldName());
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Start a new document at version 0, whatever the client sent
+     */
+    static void initVersion(MongoTemplate mongoTemplate, Object item) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(item.getClass());
+        MongoPersistentProperty version = entity.getVersionProperty();
+        if (version != null) {
+            entity.getPropertyAccessor(item).setProperty(version, 0L);
+        }
+    }
+
+    /**
+     * Replace a document in one conditional write and return the new state, or null if there is
+     * no document with this id. Throws if it exists but no longer has the expected version.
+     */
+    static <T> T replace(MongoTemplate mongoTemplate, String id, Long expectedVersion, T item, Class<T> type) {
+        return replace(mongoTemplate, id, expectedVersion, item, type, Set.of());
+    }
+
+    static <T> T replace(MongoTemplate mongoTemplate, String id, Long expectedVersion, T item, Class<T> type,
+                         Set<String> untouched) {
+        T updated = mongoTemplate.findAndModify(byIdAndVersion(id, expectedVersion), replacement(mongoTemplate, item, untouched),
+                FindAndModifyOptions.options().returnNew(true), type);
+        if (updated == null) {
+            checkVersionConflict(mongoTemplate, id, expectedVersion, type);
+        }
+        return updated;
+    }
+
+    /**
+     * JSON merge patch as one update: $set for every patched field with a value, $unset for every
+     * patched field that is null, and the version bump. Fields that are not patchable, and required
+     * fields being removed, are rejected with 400.
+     */
+    static <T> Update patch(MongoTemplate mongoTemplate, Patch<T> patch, Set<String> patchable, Set<String> required) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(patch.getChanges().getClass());
+        PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(patch.getChanges());
+
+        Update update = new Update();
+        for (String field : patch.getFields()) {
+            if (!patchable.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field + " cannot be patched");
+            }
+            MongoPersistentProperty property = entity.getRequiredPersistentProperty(field);
+            Object value = accessor.getProperty(property);
+            if (value != null) {
+                update.set(property.getFieldName(), value);
+            } else if (required.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, field + " cannot be removed");
+            } else {
+                update.unset(property.getFieldName());
+            }
+        }
+        return update.inc(VERSION, 1);
+    }
+
+    /**
+     * Apply an update in one conditional write and return the new state, or null if there is no
+     * document with this id. guard holds extra conditions the stored document must meet; on a miss
+     * the document is read once to tell "gone", "changed" (412) and "guard failed" (400) apart.
+     */
+    static <T> T modify(MongoTemplate mongoTemplate, String id, Long expectedVersion, Update update, Criteria guard,
+                        String guardFailure, Class<T> type) {
+        Query query = byIdAndVersion(id, expectedVersion);
+        if (guard != null) {
+            query.addCriteria(guard);
+        }
+        T updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), type);
+        if (updated != null) {
+            return updated;
+        }
+        T current = mongoTemplate.findById(id, type);
+        if (current == null) {
+            return null;
+        }
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Object version = entity.getVersionProperty() == null ? null
+                : entity.getPropertyAccessor(current).getProperty(entity.getVersionProperty());
+        if (guard == null || (expectedVersion != null && !expectedVersion.equals(version))) {
+            throw new OptimisticLockingFailureException(
+                    type.getSimpleName() + " " + id + " is no longer at version " + expectedVersion);
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, guardFailure);
+    }
+
+    /**
+     * Delete a document in one conditional write without reading it back. Returns false if there
+     * is no document with this id; throws if it exists but no longer has the expected version.
+     */
+    static boolean delete(MongoTemplate mongoTemplate, String id, Long expectedVersion, Class<?> type) {
+        if (mongoTemplate.remove(byIdAndVersion(id, expectedVersion), type).getDeletedCount() > 0) {
+            return true;
+        }
+        checkVersionConflict(mongoTemplate, id, expectedVersion, type);
+        return false;
+    }
+
+    /**
+     * Delete a document in one conditional write and return it, or null if there is no document
+     * with this id. Throws if it exists but no longer has the expected version.
+     */
+    static <T> T remove(MongoTemplate mongoTemplate, String id, Long expectedVersion, Class<T> type) {
+        T removed = mongoTemplate.findAndRemove(byIdAndVersion(id, expectedVersion), type);
+        if (removed == null) {
+            checkVersionConflict(mongoTemplate, id, expectedVersion, type);
+        }
+        return removed;
+    }
+
+    // Only the failure path pays for telling "changed" apart from "gone"
+    private static void checkVersionConflict(MongoTemplate mongoTemplate, String id, Long expectedVersion, Class<?> type) {
+        if (expectedVersion != null && mongoTemplate.exists(Query.query(Criteria.where("_id").is(id)), type)) {
+            throw new OptimisticLockingFailureException(
+                    type.getSimpleName() + " " + id + " is no longer at version " + expectedVersion);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.capstone.config;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Documents written before versioning get version 0 once; versioned documents are left alone.
+ */
+@SpringBootTest(properties = {
+        "migrations.event-dates.enabled=false",
+        "migrations.document-versions.enabled=false"
+})
+class DocumentVersionMigrationTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.getCollection("events").deleteMany(new Document());
+        mongoTemplate.getCollection("customers").deleteMany(new Document());
+        mongoTemplate.getCollection("events").insertOne(new Document("_id", "old").append("eventName", "Before ETags"));
+        mongoTemplate.getCollection("events").insertOne(new Document("_id", "new").append("eventName", "Since").append("version", 4L));
+        mongoTemplate.getCollection("customers").insertOne(new Document("_id", "legacy").append("name", "Alice"));
+    }
+
+    private Object version(String collection, String id) {
+        return mongoTemplate.getCollection(collection).find(new Document("_id", id)).first().get("version");
+    }
+
+    @Test
+    void setsVersionZeroOnlyWhereItIsMissing() {
+        DocumentVersionMigration migration = new DocumentVersionMigration(mongoTemplate, true);
+        migration.run(null);
+
+        assertEquals(0L, version("events", "old"));
+        assertEquals(4L, version("events", "new"));
+        assertEquals(0L, version("customers", "legacy"));
+
+        // Running again changes nothing
+        mongoTemplate.getCollection("events").updateOne(new Document("_id", "old"), new Document("$set", new Document("version", 1L)));
+        migration.run(null);
+        assertEquals(1L, version("events", "old"));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        new DocumentVersionMigration(mongoTemplate, false).run(null);
+
+        assertFalse(mongoTemplate.getCollection("events").find(new Document("_id", "old")).first().containsKey("version"));
+    }
+}
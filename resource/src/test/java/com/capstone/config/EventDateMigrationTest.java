@@ -0,0 +1,88 @@
+package com.capstone.config;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * String start dates become BSON dates, read the way the API reads them; unparseable ones are
+ * set aside in eventStartDateRaw, and dates are left alone.
+ */
+@SpringBootTest(properties = {
+        "migrations.event-dates.enabled=false",
+        "migrations.document-versions.enabled=false"
+})
+class EventDateMigrationTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @BeforeEach
+    void seed() {
+        var events = mongoTemplate.getCollection("events");
+        events.deleteMany(new Document());
+        events.insertOne(new Document("_id", "instant").append("eventStartDate", "2026-11-01T18:00:00Z"));
+        events.insertOne(new Document("_id", "offset").append("eventStartDate", "2026-11-01T20:00:00+02:00"));
+        events.insertOne(new Document("_id", "day").append("eventStartDate", "2026-11-01"));
+        events.insertOne(new Document("_id", "garbage").append("eventStartDate", "next tuesday"));
+        events.insertOne(new Document("_id", "date").append("eventStartDate", Date.from(Instant.parse("2027-01-01T00:00:00Z"))));
+    }
+
+    private Document event(String id) {
+        return mongoTemplate.getCollection("events").find(new Document("_id", id)).first();
+    }
+
+    @Test
+    void convertsStringsWithTheApiParser() {
+        new EventDateMigration(mongoTemplate, true).run(null);
+
+        assertEquals(Date.from(Instant.parse("2026-11-01T18:00:00Z")), event("instant").get("eventStartDate"));
+        assertEquals(Date.from(Instant.parse("2026-11-01T18:00:00Z")), event("offset").get("eventStartDate"));
+        assertEquals(Date.from(Instant.parse("2026-11-01T00:00:00Z")), event("day").get("eventStartDate"));
+        assertEquals(Date.from(Instant.parse("2027-01-01T00:00:00Z")), event("date").get("eventStartDate"));
+
+        Document garbage = event("garbage");
+        assertNull(garbage.get("eventStartDate"));
+        assertEquals("next tuesday", garbage.get("eventStartDateRaw"));
+        assertFalse(event("instant").containsKey("eventStartDateRaw"));
+
+        // Nothing is a string any more, so a second run changes nothing
+        new EventDateMigration(mongoTemplate, true).run(null);
+        assertEquals("next tuesday", event("garbage").get("eventStartDateRaw"));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        new EventDateMigration(mongoTemplate, false).run(null);
+
+        assertEquals("2026-11-01", event("day").get("eventStartDate"));
+    }
+}
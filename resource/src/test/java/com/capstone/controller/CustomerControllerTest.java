@@ -0,0 +1,236 @@
+package com.capstone.controller;
+
+import com.capstone.domain.Customer;
+import com.capstone.repository.CustomersRepository;
+import com.capstone.security.ServiceKey;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * What /customers reveals and lets a client change: the list needs a token, only the account
+ * service's lookup returns the password hash, ?fields= returns exactly the fields asked for, and
+ * neither a patch nor a replacement can touch the hash or isAdmin.
+ */
+@SpringBootTest(properties = {
+        "migrations.event-dates.enabled=false",
+        "migrations.document-versions.enabled=false"
+})
+@AutoConfigureMockMvc
+class CustomerControllerTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    private static final String HASH = "$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomersRepository customersRepository;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${service.key}")
+    private String serviceKey;
+
+    private String customerId;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @BeforeEach
+    void createCustomer() {
+        customersRepository.deleteAll();
+        Customer customer = new Customer();
+        customer.setName("Alice");
+        customer.setEmail("alice@example.com");
+        customer.setPassword(HASH);
+        customer.setCompanyName("Acme");
+        customer.setLocation("Berlin");
+        customerId = customersRepository.save(customer).getId();
+    }
+
+    /**
+     * A request as Tomcat hands it to the filters
+     */
+    private static MockHttpServletRequestBuilder asServed(MockHttpServletRequestBuilder request) {
+        return request.with(r -> {
+            r.setServletPath(r.getRequestURI());
+            return r;
+        });
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        Date now = new Date();
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim("email", "alice@example.com")
+                .claim("customerId", customerId)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        return asServed(request).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    @Test
+    void listsReturnTheRequestedFieldsAndNeverTheHash() throws Exception {
+        mockMvc.perform(asServed(get("/customers")))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(authorized(get("/customers")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(customerId))
+                .andExpect(jsonPath("$[0].version").value(0))
+                .andExpect(jsonPath("$[0].name").value("Alice"))
+                .andExpect(jsonPath("$[0].companyName").value("Acme"))
+                .andExpect(jsonPath("$[0].location").doesNotExist())
+                .andExpect(jsonPath("$[0].password").doesNotExist());
+
+        mockMvc.perform(authorized(get("/customers")).param("fields", "location,isAdmin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].location").value("Berlin"))
+                .andExpect(jsonPath("$[0].isAdmin").value(false))
+                .andExpect(jsonPath("$[0].name").doesNotExist())
+                .andExpect(jsonPath("$[0].password").doesNotExist());
+
+        mockMvc.perform(authorized(get("/customers")).param("fields", "name,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void onlyTheServiceKeyLookupReturnsTheHash() throws Exception {
+        mockMvc.perform(authorized(get("/customers/" + customerId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.email").value("alice@example.com"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+
+        mockMvc.perform(authorized(get("/customers/lookup")).param("email", "alice@example.com"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(asServed(get("/customers/lookup")).param("email", "alice@example.com")
+                        .header(ServiceKey.HEADER, "not-the-key"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(asServed(get("/customers/lookup")).param("email", "alice@example.com")
+                        .header(ServiceKey.HEADER, serviceKey))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.password").value(HASH));
+    }
+
+    @Test
+    void signupDoesNotEchoTheHash() throws Exception {
+        mockMvc.perform(asServed(post("/customers")).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Bob\",\"email\":\"bob@example.com\",\"password\":\"" + HASH + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("bob@example.com"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    void mergePatchChangesOnlyTheNamedFields() throws Exception {
+        mockMvc.perform(authorized(patch("/customers/" + customerId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content("{\"jobTitle\":\"CTO\",\"location\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.jobTitle").value("CTO"))
+                .andExpect(jsonPath("$.companyName").value("Acme"))
+                .andExpect(jsonPath("$.location").doesNotExist())
+                .andExpect(jsonPath("$.password").doesNotExist());
+
+        Customer stored = customersRepository.findById(customerId).orElseThrow();
+        assertNull(stored.getLocation());
+        assertEquals(HASH, stored.getPassword());
+
+        mockMvc.perform(authorized(patch("/customers/" + customerId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"email\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(patch("/customers/" + customerId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"isAdmin\":true}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(patch("/customers/" + customerId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"password\":\"plain\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(patch("/customers/" + customerId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(patch("/customers/" + customerId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content("{\"jobTitle\":\"CEO\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(1L, customersRepository.findById(customerId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void replacementKeepsTheHashAndIsAdmin() throws Exception {
+        mockMvc.perform(authorized(put("/customers/" + customerId)).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + customerId + "\",\"name\":\"Alice B\",\"email\":\"alice@example.com\","
+                                + "\"password\":\"plain\",\"isAdmin\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        Customer stored = customersRepository.findById(customerId).orElseThrow();
+        assertEquals("Alice B", stored.getName());
+        assertEquals(HASH, stored.getPassword());
+        assertFalse(stored.getIsAdmin());
+        // A replacement drops the fields it leaves out
+        assertNull(stored.getCompanyName());
+    }
+
+    @Test
+    void replacementWithAnEmailInUseIsAConflict() throws Exception {
+        Customer other = new Customer();
+        other.setName("Bob");
+        other.setEmail("bob@example.com");
+        other.setPassword(HASH);
+        customersRepository.save(other);
+
+        mockMvc.perform(authorized(put("/customers/" + customerId)).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + customerId + "\",\"name\":\"Alice\",\"email\":\"bob@example.com\"}"))
+                .andExpect(status().isConflict());
+
+        assertEquals("alice@example.com", customersRepository.findById(customerId).orElseThrow().getEmail());
+    }
+}
@@ -0,0 +1,61 @@
+package com.capstone.controller;
+
+import com.capstone.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    private static String etag(List<String> keys) {
+        return ETags.list(keys, key -> key).build().getHeaders().getFirst(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void ifMatchNamesOneVersion() {
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion(" * "));
+        assertEquals(3L, ETags.expectedVersion("\"3\""));
+        // Tomcat weakens the ETag of a compressed response; it still names the exact version
+        assertEquals(3L, ETags.expectedVersion("W/\"3\""));
+
+        for (String ifMatch : new String[]{"3", "W/3", "\"", "\"3\", \"4\"", "\"abc\""}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> ETags.expectedVersion(ifMatch));
+            assertEquals(412, e.getStatusCode().value(), ifMatch);
+        }
+    }
+
+    @Test
+    void listETagChangesWithAnyElement() {
+        String etag = etag(List.of("a:1", "b:1"));
+
+        assertEquals(etag, etag(List.of("a:1", "b:1")));
+        // Two documents changing independently, a swap for another document and a new order all show
+        assertNotEquals(etag, etag(List.of("a:2", "b:1")));
+        assertNotEquals(etag, etag(List.of("a:1", "c:1")));
+        assertNotEquals(etag, etag(List.of("b:1", "a:1")));
+        assertNotEquals(etag, etag(List.of("a:1b:1")));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+
+    @Test
+    void pageETagCoversWhereThePageIs() {
+        PageResponse<String> first = new PageResponse<>(List.of("a:1"), 0, 1, true, null);
+        PageResponse<String> last = new PageResponse<>(List.of("a:1"), 0, 1, false, null);
+
+        String etag = ETags.page(first, key -> key).build().getHeaders().getFirst(HttpHeaders.ETAG);
+        assertNotEquals(etag, etag(List.of("a:1")));
+        assertNotEquals(etag, ETags.page(last, key -> key).build().getHeaders().getFirst(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void documentsWithoutAVersionHaveNoETag() {
+        assertNull(ETags.of(null));
+        assertNull(ETags.ok(null).build().getHeaders().getETag());
+        assertEquals("\"0\"", ETags.ok(0L).build().getHeaders().getETag());
+    }
+}
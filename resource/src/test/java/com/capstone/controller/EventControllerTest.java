@@ -0,0 +1,278 @@
+package com.capstone.controller;
+
+import com.capstone.domain.Event;
+import com.capstone.repository.EventRepository;
+import com.capstone.service.EventCatalogCache;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional requests and merge patches on /events through the full filter chain: If-None-Match
+ * answers 304, a stale If-Match answers 412 and two writers starting from the same version cannot
+ * both win, and a patch keeps the event's dates in order.
+ */
+@SpringBootTest(properties = {
+        "migrations.event-dates.enabled=false",
+        "migrations.document-versions.enabled=false"
+})
+@AutoConfigureMockMvc
+class EventControllerTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCatalogCache eventCatalogCache;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private String eventId;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @BeforeEach
+    void createEvent() {
+        eventRepository.deleteAll();
+        eventCatalogCache.invalidateAll();
+        Event event = new Event();
+        event.setEventName("Launch");
+        event.setEventDescription("Conditional request test event");
+        event.setEventAvailability(10);
+        event.setEventStartDate(Instant.parse("2030-01-01T10:00:00Z"));
+        event.setEventEndDate(Instant.parse("2030-01-01T12:00:00Z"));
+        eventId = eventRepository.save(event).getId();
+    }
+
+    /**
+     * A request as Tomcat hands it to the filters, with a valid customer token
+     */
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        Date now = new Date();
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim("email", "alice@example.com")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .with(r -> {
+                    r.setServletPath(r.getRequestURI());
+                    return r;
+                });
+    }
+
+    private String body(Instant start, Instant end) {
+        return "{\"id\":\"" + eventId + "\",\"eventName\":\"Launch\",\"eventDescription\":\"Moved\",\"eventAvailability\":10,"
+                + "\"eventStartDate\":\"" + start + "\"" + (end == null ? "" : ",\"eventEndDate\":\"" + end + "\"") + "}";
+    }
+
+    @Test
+    void getAnswers304WhileTheVersionIsUnchanged() throws Exception {
+        String etag = mockMvc.perform(authorized(get("/events/" + eventId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(authorized(get("/events/" + eventId)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(authorized(put("/events/" + eventId)).contentType(MediaType.APPLICATION_JSON)
+                        .content(body(Instant.parse("2030-01-02T10:00:00Z"), null)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(authorized(get("/events/" + eventId)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void listETagChangesWithAnyEventAndAnswers304Otherwise() throws Exception {
+        String etag = mockMvc.perform(authorized(get("/events")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(authorized(get("/events")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventDescription\":\"Changed\"}"))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(authorized(get("/events")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void listFiltersAndPagesOnTheServerAndRejectsUnknownFilters() throws Exception {
+        mockMvc.perform(authorized(get("/events")).param("eventName", "laun").param("eventAvailability", "10")
+                        .param("page", "0").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(eventId))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(authorized(get("/events")).param("eventAvailability", "9").param("page", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+
+        // A misspelt filter must not quietly list the whole catalog
+        mockMvc.perform(authorized(get("/events")).param("evntName", "Launch"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(get("/events")).param("eventAvailability", "ten"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void staleIfMatchIsRefusedWith412() throws Exception {
+        mockMvc.perform(authorized(put("/events/" + eventId)).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content(body(Instant.parse("2030-01-02T10:00:00Z"), null)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(put("/events/" + eventId)).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content(body(Instant.parse("2030-01-03T10:00:00Z"), null)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(authorized(delete("/events/" + eventId)).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        // The weakened ETag Tomcat sends with a compressed response still names the exact version
+        mockMvc.perform(authorized(delete("/events/" + eventId)).header(HttpHeaders.IF_MATCH, "W/\"1\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyOneOfConcurrentWritersFromTheSameVersionWins() throws Exception {
+        int writers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                Instant newStart = Instant.parse("2030-02-01T00:00:00Z").plusSeconds(i);
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(authorized(put("/events/" + eventId)).contentType(MediaType.APPLICATION_JSON)
+                                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                    .content(body(newStart, null)))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            int won = 0;
+            for (Future<Integer> status : statuses) {
+                int code = status.get();
+                if (code == 200) {
+                    won++;
+                } else {
+                    assertEquals(412, code);
+                }
+            }
+            assertEquals(1, won);
+            assertEquals(1L, eventRepository.findById(eventId).orElseThrow().getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mergePatchRemovesNullFieldsAndKeepsRequiredOnes() throws Exception {
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventEndDate\":null,\"eventAvailability\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.eventAvailability").value(5))
+                .andExpect(jsonPath("$.eventName").value("Launch"));
+        assertNull(eventRepository.findById(eventId).orElseThrow().getEventEndDate());
+
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventName\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"version\":7}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content("{\"eventAvailability\":4}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchCannotPutTheEndBeforeTheStart() throws Exception {
+        // Only the end moves: checked against the stored start in the same write
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventEndDate\":\"2029-12-31T00:00:00Z\"}"))
+                .andExpect(status().isBadRequest());
+        // Only the start moves: checked against the stored end
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventStartDate\":\"2030-01-01T13:00:00Z\"}"))
+                .andExpect(status().isBadRequest());
+        // Both move together
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventStartDate\":\"2030-01-05T10:00:00Z\",\"eventEndDate\":\"2030-01-04T10:00:00Z\"}"))
+                .andExpect(status().isBadRequest());
+
+        Event stored = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(0L, stored.getVersion());
+        assertEquals(Instant.parse("2030-01-01T12:00:00Z"), stored.getEventEndDate());
+
+        mockMvc.perform(authorized(patch("/events/" + eventId)).contentType(PatchReader.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"eventStartDate\":\"2030-01-01T11:00:00Z\"}"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,39 @@
+package com.capstone.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlexibleInstantDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Instant start(String json) throws Exception {
+        return objectMapper.readValue("{\"eventStartDate\":" + json + "}", Event.class).getEventStartDate();
+    }
+
+    @Test
+    void readsInstantsOffsetsLocalTimesAndPlainDates() throws Exception {
+        assertEquals(Instant.parse("2026-11-01T18:00:00Z"), start("\"2026-11-01T18:00:00Z\""));
+        assertEquals(Instant.parse("2026-11-01T18:00:00Z"), start("\"2026-11-01T20:00:00+02:00\""));
+        // No offset means UTC, and a plain date (an HTML date input) the start of that day
+        assertEquals(Instant.parse("2026-11-01T18:00:00Z"), start("\"2026-11-01T18:00:00\""));
+        assertEquals(Instant.parse("2026-11-01T00:00:00Z"), start("\" 2026-11-01 \""));
+    }
+
+    @Test
+    void blankIsNoDate() throws Exception {
+        assertNull(start("\"\""));
+        assertNull(start("null"));
+    }
+
+    @Test
+    void rejectsAnythingElse() {
+        assertThrows(InvalidFormatException.class, () -> start("\"next tuesday\""));
+        assertThrows(InvalidFormatException.class, () -> start("\"2026-13-01\""));
+    }
+}
@@ -0,0 +1,95 @@
+package com.capstone.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    @TempDir
+    Path keyDir;
+
+    private static String token(String kid, Key key) {
+        Date now = new Date();
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("alice")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 60_000))
+                .signWith(key)
+                .compact();
+    }
+
+    private JwtTokenUtil jwtTokenUtil() {
+        return new JwtTokenUtil(new JwtKeyRing(SECRET, "default", keyDir.toString(), Duration.ofMinutes(1)),
+                new VerifiedTokenCache(0), new SimpleMeterRegistry());
+    }
+
+    private void publish(String kid, KeyPair keyPair) throws Exception {
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        Files.writeString(keyDir.resolve(kid + "-public.pem"), pem);
+    }
+
+    @Test
+    void verifiesAsymmetricTokensByKeyId() throws Exception {
+        KeyPair rsa = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        KeyPair ed25519 = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        publish("rsa-1", rsa);
+        publish("ed-1", ed25519);
+        JwtTokenUtil jwtTokenUtil = jwtTokenUtil();
+
+        assertEquals("alice", jwtTokenUtil.getUsernameFromToken(token("rsa-1", rsa.getPrivate())));
+        assertEquals("alice", jwtTokenUtil.getUsernameFromToken(token("ed-1", ed25519.getPrivate())));
+        // Signed by the other key than the kid names
+        assertFalse(jwtTokenUtil.validateToken(token("rsa-1", KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate())));
+        assertFalse(jwtTokenUtil.validateToken(token("unknown", rsa.getPrivate())));
+    }
+
+    @Test
+    void hmacSecretChecksTokensWithItsKidOrNone() {
+        Key secret = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        JwtTokenUtil jwtTokenUtil = jwtTokenUtil();
+
+        assertTrue(jwtTokenUtil.validateToken(token("default", secret)));
+        String withoutKid = Jwts.builder().subject("alice").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(secret).compact();
+        assertTrue(jwtTokenUtil.validateToken(withoutKid));
+    }
+
+    @Test
+    void hmacTokensAreRejectedWhenHmacIsNotAccepted() throws Exception {
+        Key secret = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        KeyPair rsa = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        publish("rsa-1", rsa);
+        String withoutKid = Jwts.builder().subject("alice").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(secret).compact();
+
+        for (JwtKeyRing keyRing : new JwtKeyRing[]{
+                new JwtKeyRing(SECRET, "default", false, keyDir.toString(), Duration.ofMinutes(1)),
+                new JwtKeyRing("", "default", keyDir.toString(), Duration.ofMinutes(1))}) {
+            JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(keyRing, new VerifiedTokenCache(0), new SimpleMeterRegistry());
+
+            assertFalse(jwtTokenUtil.validateToken(token("default", secret)));
+            assertFalse(jwtTokenUtil.validateToken(withoutKid));
+            assertTrue(jwtTokenUtil.validateToken(token("rsa-1", rsa.getPrivate())));
+        }
+    }
+}
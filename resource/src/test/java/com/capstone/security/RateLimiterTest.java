@@ -0,0 +1,101 @@
+package com.capstone.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private RateLimiter limiter(String routes, int maxKeys) {
+        return new RateLimiter(RateLimiter.parseRoutes(routes, maxKeys, now::get, new SimpleMeterRegistry()), now::get);
+    }
+
+    @Test
+    void allowsABurstThenRefillsAtTheRate() {
+        RateLimiter limiter = limiter("GET /customers 10/3 -", 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("GET", "/customers", "alice", "10.0.0.1"));
+        }
+        long wait = limiter.acquire("GET", "/customers", "alice", "10.0.0.1");
+        assertEquals(Duration.ofMillis(100).toNanos(), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.acquire("GET", "/customers", "alice", "10.0.0.1"));
+        assertTrue(limiter.acquire("GET", "/customers", "alice", "10.0.0.1") > 0);
+    }
+
+    @Test
+    void subjectsAndAddressesHaveTheirOwnBuckets() {
+        RateLimiter limiter = limiter("* /** 1/1 1/2", 100);
+
+        assertEquals(0, limiter.acquire("GET", "/events", "alice", "10.0.0.1"));
+        assertTrue(limiter.acquire("GET", "/events", "alice", "10.0.0.1") > 0);
+        assertEquals(0, limiter.acquire("GET", "/events", "bob", "10.0.0.1"));
+        // alice and bob together used up the address's burst of 2
+        assertTrue(limiter.acquire("GET", "/events", "carol", "10.0.0.1") > 0);
+        assertEquals(0, limiter.acquire("GET", "/events", null, "10.0.0.2"));
+    }
+
+    @Test
+    void addressBucketIsTakenWithoutASubject() {
+        RateLimiter limiter = limiter("* /** 10/10 1/2", 100);
+
+        // Requests whose token has not been verified (or fails verification) still use up the address's burst
+        assertEquals(0, limiter.acquireIp("GET", "/events", "10.0.0.1"));
+        assertEquals(0, limiter.acquireIp("GET", "/events", "10.0.0.1"));
+        assertTrue(limiter.acquireIp("GET", "/events", "10.0.0.1") > 0);
+        assertEquals(0, limiter.acquireSubject("GET", "/events", "alice"));
+        assertEquals(0, limiter.acquireIp("GET", "/events", "10.0.0.2"));
+    }
+
+    @Test
+    void firstMatchingRouteAppliesAndUnmatchedRequestsAreNotLimited() {
+        RateLimiter limiter = limiter("GET /customers/lookup - -; GET /customers/** 1/1 -", 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("GET", "/customers/lookup", "alice", "10.0.0.1"));
+            assertEquals(0, limiter.acquire("DELETE", "/customers/42", "alice", "10.0.0.1"));
+        }
+        assertEquals(0, limiter.acquire("GET", "/customers/42", "alice", "10.0.0.1"));
+        assertTrue(limiter.acquire("GET", "/customers/42", "alice", "10.0.0.1") > 0);
+    }
+
+    @Test
+    void idleBucketsAreEvictedAndTheStoreStaysBounded() {
+        RateLimiter limiter = limiter("* /** - 1/1", 50);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.acquire("GET", "/events", null, "10.0.0." + i);
+        }
+        assertTrue(limiter.size() <= 50);
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        limiter.acquire("GET", "/events", null, "10.0.1.1");
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void busyBucketsSurviveAFloodOfNewKeys() {
+        RateLimiter limiter = limiter("* /** - 1/1", 50);
+        assertEquals(0, limiter.acquire("GET", "/events", null, "10.0.0.1"));
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.acquire("GET", "/events", null, "10.1.0." + i);
+            // Still limited: its empty bucket was not evicted to make room for the new addresses
+            assertTrue(limiter.acquire("GET", "/events", null, "10.0.0.1") > 0);
+        }
+    }
+
+    @Test
+    void rejectsMalformedRoutes() {
+        assertThrows(IllegalArgumentException.class, () -> limiter("GET /customers 10/20", 100));
+        assertThrows(IllegalArgumentException.class, () -> limiter("GET /customers ten/20 -", 100));
+        assertThrows(IllegalArgumentException.class, () -> limiter("GET /customers 0/20 -", 100));
+    }
+}
@@ -0,0 +1,74 @@
+package com.capstone.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private static Claims claims(String subject, long expiresInMs) {
+        return Jwts.claims()
+                .subject(subject)
+                .expiration(new Date(System.currentTimeMillis() + expiresInMs))
+                .build();
+    }
+
+    private Function<String, Claims> verifier(Claims claims) {
+        return token -> {
+            verifications.incrementAndGet();
+            return claims;
+        };
+    }
+
+    @Test
+    void returnsCachedClaimsAndCountsHitsAndMisses() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+        assertNull(cache.get("token-a", verifier(null)));
+        assertEquals("alice", cache.get("token-a", verifier(claims("alice", 60_000))).getSubject());
+        assertEquals("alice", cache.get("token-a", verifier(claims("mallory", 60_000))).getSubject());
+
+        assertEquals(2, verifications.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void expiredTokensAreNotServed() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        cache.get("token-a", verifier(claims("alice", -1_000)));
+
+        assertNull(cache.get("token-a", verifier(null)));
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void tokensWithoutExpiryAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        Claims claims = Jwts.claims().subject("alice").build();
+        cache.get("token-a", verifier(claims));
+        cache.get("token-a", verifier(claims));
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(50);
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("token-" + i, verifier(claims("user-" + i, 60_000)));
+        }
+
+        assertTrue(cache.size() <= 50);
+    }
+}
@@ -0,0 +1,129 @@
+package com.capstone.service;
+
+import com.capstone.domain.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two caches sharing one in-memory broadcaster stand in for two resource-service nodes.
+ */
+class EventCatalogCacheTest {
+
+    private static EventCatalogCache cache(EventCacheInvalidationBroadcaster broadcaster) {
+        return new EventCatalogCache(broadcaster, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    private static Event event(String id, String name) {
+        Event event = new Event();
+        event.setId(id);
+        event.setEventName(name);
+        return event;
+    }
+
+    @Test
+    void servesRepeatedReadsFromCacheAndCountsHits() {
+        EventCatalogCache cache = cache(new InMemoryEventCacheInvalidationBroadcaster());
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Event> loader = id -> {
+            loads.incrementAndGet();
+            return event(id, "Launch");
+        };
+
+        cache.get("e1", loader);
+        cache.get("e1", loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    void missingEventsAreNotCached() {
+        EventCatalogCache cache = cache(new InMemoryEventCacheInvalidationBroadcaster());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("missing", id -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get("missing", id -> { loads.incrementAndGet(); return null; }));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationOnOneNodeEvictsTheOtherNode() {
+        InMemoryEventCacheInvalidationBroadcaster broadcaster = new InMemoryEventCacheInvalidationBroadcaster();
+        EventCatalogCache nodeA = cache(broadcaster);
+        EventCatalogCache nodeB = cache(broadcaster);
+
+        nodeB.get("e1", id -> event(id, "Old name"));
+        nodeB.getAll(() -> List.of(event("e1", "Old name")));
+
+        nodeA.invalidate("e1");
+
+        assertEquals("New name", nodeB.get("e1", id -> event(id, "New name")).getEventName());
+        assertEquals("New name", nodeB.getAll(() -> List.of(event("e1", "New name"))).get(0).getEventName());
+    }
+
+    @Test
+    void invalidateAllDropsEveryEvent() {
+        InMemoryEventCacheInvalidationBroadcaster broadcaster = new InMemoryEventCacheInvalidationBroadcaster();
+        EventCatalogCache nodeA = cache(broadcaster);
+        EventCatalogCache nodeB = cache(broadcaster);
+        nodeB.get("e1", id -> event(id, "One"));
+        nodeB.get("e2", id -> event(id, "Two"));
+
+        nodeA.invalidateAll();
+
+        AtomicInteger loads = new AtomicInteger();
+        nodeB.get("e1", id -> { loads.incrementAndGet(); return event(id, "One"); });
+        nodeB.get("e2", id -> { loads.incrementAndGet(); return event(id, "Two"); });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void seatChangesUpdateCachedEventsWithoutReloading() {
+        InMemoryEventCacheInvalidationBroadcaster broadcaster = new InMemoryEventCacheInvalidationBroadcaster();
+        EventCatalogCache nodeA = cache(broadcaster);
+        EventCatalogCache nodeB = cache(broadcaster);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Event> loader = id -> {
+            loads.incrementAndGet();
+            Event event = event(id, "Launch");
+            event.setEventAvailability(10);
+            event.setVersion(3L);
+            return event;
+        };
+        nodeB.get("e1", loader);
+        nodeB.getAll(() -> List.of(loader.apply("e1")));
+
+        nodeA.seatsChanged("e1", 9, 4L);
+        // A release that was overtaken by a newer reservation is ignored
+        nodeA.seatsChanged("e1", 10, 3L);
+
+        Event single = nodeB.get("e1", loader);
+        Event listed = nodeB.getAll(() -> List.of(loader.apply("e1"))).get(0);
+        assertEquals(9, single.getEventAvailability());
+        assertEquals(4L, single.getVersion());
+        assertEquals(9, listed.getEventAvailability());
+        assertEquals(4L, listed.getVersion());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void callersGetTheirOwnCopies() {
+        EventCatalogCache cache = cache(new InMemoryEventCacheInvalidationBroadcaster());
+        Function<String, Event> loader = id -> event(id, "Launch");
+
+        cache.get("e1", loader).setEventName("Changed by a caller");
+        cache.getAll(() -> List.of(event("e1", "Launch"))).get(0).setEventName("Changed by a caller");
+
+        assertEquals("Launch", cache.get("e1", loader).getEventName());
+        assertEquals("Launch", cache.getAll(() -> List.of(event("e1", "Launch"))).get(0).getEventName());
+    }
+}
@@ -0,0 +1,129 @@
+package com.capstone.service;
+
+import com.capstone.domain.Event;
+import com.capstone.dto.PageParams;
+import com.capstone.dto.PageResponse;
+import com.capstone.repository.EventRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ?from=&to= returns the events starting in [from, to) in start order, unpaged, offset paged
+ * and keyset paged alike.
+ */
+@SpringBootTest(properties = {
+        "migrations.event-dates.enabled=false",
+        "migrations.document-versions.enabled=false"
+})
+class EventServiceRangeTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @BeforeEach
+    void createEvents() {
+        eventRepository.deleteAll();
+        // Inserted out of start order, so _id order differs from start order; two share a start
+        save("Mar", "2030-03-01T10:00:00Z");
+        save("Jan", "2030-01-15T10:00:00Z");
+        save("Feb b", "2030-02-01T00:00:00Z");
+        save("Feb a", "2030-02-01T00:00:00Z");
+        save("Dec", "2029-12-31T23:59:59Z");
+        save("Apr", "2030-04-01T00:00:00Z");
+    }
+
+    private void save(String name, String start) {
+        Event event = new Event();
+        event.setEventName(name);
+        event.setEventDescription("Range test event");
+        event.setEventStartDate(Instant.parse(start));
+        eventRepository.save(event);
+    }
+
+    private static Map<String, String> params(String... keysAndValues) {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            params.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return params;
+    }
+
+    private static List<String> names(List<Event> events) {
+        return events.stream().map(Event::getEventName).toList();
+    }
+
+    @Test
+    void rangeIsHalfOpenAndInStartOrder() {
+        List<Event> events = eventService.findEvents(params("from", "2030-01-01", "to", "2030-04-01"));
+
+        assertEquals(List.of("Jan", "Feb b", "Feb a", "Mar"), names(events));
+        assertEquals(List.of("Dec", "Jan"), names(eventService.findEvents(params("to", "2030-02-01"))));
+        assertEquals(List.of("Apr"), names(eventService.findEvents(params("from", "2030-03-01T10:00:01Z"))));
+    }
+
+    @Test
+    void rejectsBadBounds() {
+        assertThrows(ResponseStatusException.class, () -> eventService.findEvents(params("from", "2030-02-01", "to", "2030-02-01")));
+        assertThrows(ResponseStatusException.class, () -> eventService.findEvents(params("from", "yesterday")));
+    }
+
+    @Test
+    void offsetPagesFollowStartOrder() {
+        Map<String, String> params = params("from", "2030-01-01", "size", "2");
+        PageResponse<Event> first = eventService.findEvents(params, PageParams.from(params));
+        params.put("page", "1");
+        PageResponse<Event> second = eventService.findEvents(params, PageParams.from(params));
+
+        assertEquals(List.of("Jan", "Feb b"), names(first.getContent()));
+        assertEquals(List.of("Feb a", "Mar"), names(second.getContent()));
+        assertTrue(second.isHasNext());
+    }
+
+    @Test
+    void keysetPagesFollowStartOrderAcrossEqualStarts() {
+        List<String> walked = new ArrayList<>();
+        Map<String, String> params = params("from", "2030-01-01", "size", "2", "after", "");
+        while (true) {
+            PageResponse<Event> page = eventService.findEvents(params, PageParams.from(params));
+            walked.addAll(names(page.getContent()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            params.put("after", page.getNextCursor());
+        }
+
+        assertEquals(List.of("Jan", "Feb b", "Feb a", "Mar", "Apr"), walked);
+    }
+}
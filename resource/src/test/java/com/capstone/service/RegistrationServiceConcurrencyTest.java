@@ -0,0 +1,136 @@
+package com.capstone.service;
+
+import com.capstone.domain.Event;
+import com.capstone.domain.Registration;
+import com.capstone.dto.BulkResult;
+import com.capstone.repository.EventRepository;
+import com.capstone.repository.RegistrationRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires thousands of parallel registrations at one event against an in-memory Mongo server
+ * and checks that exactly the available seats are handed out, and that a bulk delete gives
+ * each seat back once.
+ */
+@SpringBootTest(properties = "migrations.event-dates.enabled=false")
+class RegistrationServiceConcurrencyTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    private static final int SEATS = 100;
+    private static final int ATTEMPTS = 3_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @Test
+    void parallelRegistrationsNeverOversell() throws Exception {
+        Event event = new Event();
+        event.setEventName("Flash sale");
+        event.setEventDescription("Concurrency test event");
+        event.setEventAvailability(SEATS);
+        event.setEventStartDate(Instant.parse("2030-01-01T00:00:00Z"));
+        String eventId = eventRepository.save(event).getId();
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                String customerId = "customer-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Registration registration = new Registration();
+                    registration.setCustomerId(customerId);
+                    registration.setEventId(eventId);
+                    registration.setStatus("registered");
+                    try {
+                        registrationService.createRegistration(registration);
+                        accepted.incrementAndGet();
+                    } catch (EventFullException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(SEATS, accepted.get());
+        assertEquals(ATTEMPTS - SEATS, rejected.get());
+        assertEquals(0, eventRepository.findById(eventId).orElseThrow().getEventAvailability());
+        assertEquals(SEATS, registrationRepository.findByEventId(eventId).size());
+    }
+
+    @Test
+    void bulkDeleteGivesEachSeatBackOnce() {
+        Event event = new Event();
+        event.setEventName("Bulk delete");
+        event.setEventDescription("Seat release test event");
+        event.setEventAvailability(10);
+        event.setEventStartDate(Instant.parse("2030-01-01T00:00:00Z"));
+        String eventId = eventRepository.save(event).getId();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Registration registration = new Registration();
+            registration.setCustomerId("bulk-customer-" + i);
+            registration.setEventId(eventId);
+            registration.setStatus("registered");
+            ids.add(registrationService.createRegistration(registration).getId());
+        }
+
+        BulkResult result = registrationService.bulkDeleteRegistrations(
+                List.of(ids.get(0), ids.get(1), ids.get(0), new ObjectId().toHexString(), "not-an-id").iterator());
+
+        assertEquals(2, result.getDeleted());
+        assertEquals(2, result.getNotFound());
+        assertEquals(1, result.getFailed());
+        assertEquals(9, eventRepository.findById(eventId).orElseThrow().getEventAvailability());
+        assertEquals(1, registrationRepository.findByEventId(eventId).size());
+    }
+}
@@ -0,0 +1,205 @@
+package com.capstone.service;
+
+import com.capstone.domain.Event;
+import com.capstone.domain.Registration;
+import com.capstone.repository.EventRepository;
+import com.capstone.repository.RegistrationRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel registrations through the group-commit write pipeline: seats are still never oversold,
+ * every caller gets its own stored registration back, and inserts are actually written in batches.
+ * A failed batch only fails its callers, and a caller that times out leaves no registration behind.
+ */
+@SpringBootTest(properties = {
+        "migrations.event-dates.enabled=false",
+        "registrations.write-pipeline.enabled=true",
+        "registrations.write-pipeline.window=5ms"
+})
+class RegistrationWritePipelineTest {
+
+    private static final MongoServer mongoServer = new MongoServer(new MemoryBackend());
+
+    private static final int SEATS = 200;
+    private static final int ATTEMPTS = 1_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoServer.bindAndGetConnectionString();
+        registry.add("spring.data.mongodb.uri", () -> connectionString + "/capstone");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdown();
+    }
+
+    @Test
+    void batchedRegistrationsKeepSeatsAndResultsPerCaller() throws Exception {
+        Event event = new Event();
+        event.setEventName("Ticket drop");
+        event.setEventDescription("Write pipeline test event");
+        event.setEventAvailability(SEATS);
+        event.setEventStartDate(Instant.parse("2030-01-01T00:00:00Z"));
+        String eventId = eventRepository.save(event).getId();
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                String customerId = "customer-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Registration registration = new Registration();
+                    registration.setCustomerId(customerId);
+                    registration.setEventId(eventId);
+                    registration.setStatus("registered");
+                    try {
+                        Registration stored = registrationService.createRegistration(registration);
+                        assertEquals(customerId, stored.getCustomerId());
+                        assertEquals(Long.valueOf(0), stored.getVersion());
+                        ids.add(stored.getId());
+                    } catch (EventFullException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(SEATS, ids.size());
+        assertEquals(ATTEMPTS - SEATS, rejected.get());
+        assertEquals(0, eventRepository.findById(eventId).orElseThrow().getEventAvailability());
+        assertEquals(SEATS, registrationRepository.findByEventId(eventId).size());
+        long batches = meterRegistry.get("registrations.write.pipeline.batch.size").summary().count();
+        assertTrue(batches < SEATS, "expected inserts to be grouped, got " + batches + " batches");
+    }
+
+    @Test
+    void writerKeepsGoingAfterAFailedBatch() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        BulkWriter failingOnce = new BulkWriter(mongoTemplate, 1000) {
+            @Override
+            void execute(BulkOperations ops, Map<Integer, String> errors, Set<Integer> upserts) {
+                if (writes.getAndIncrement() == 0) {
+                    throw new IllegalStateException("lost connection");
+                }
+                super.execute(ops, errors, upserts);
+            }
+        };
+        RegistrationWritePipeline pipeline = pipeline(failingOnce, Duration.ofSeconds(5));
+        try {
+            CompletionException failed = assertThrows(CompletionException.class,
+                    () -> pipeline.submit(registration("first-batch")).join());
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+
+            Registration stored = pipeline.submit(registration("second-batch")).get(5, TimeUnit.SECONDS);
+            assertEquals(1, registrationRepository.findByEventId(stored.getEventId()).size());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void timedOutInsertIsNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BulkWriter slow = new BulkWriter(mongoTemplate, 1000) {
+            @Override
+            void execute(BulkOperations ops, Map<Integer, String> errors, Set<Integer> upserts) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.execute(ops, errors, upserts);
+            }
+        };
+        RegistrationWritePipeline pipeline = pipeline(slow, Duration.ofMillis(50));
+        try {
+            Registration registration = registration("slow-write");
+            CompletionException timedOut = assertThrows(CompletionException.class,
+                    () -> pipeline.submit(registration).join());
+            assertInstanceOf(TimeoutException.class, timedOut.getCause());
+
+            release.countDown();
+            // Waits for the writer to finish the slow batch and its clean-up
+            pipeline.stop();
+            assertEquals(0, registrationRepository.findByEventId("slow-write").size());
+        } finally {
+            release.countDown();
+            pipeline.stop();
+        }
+    }
+
+    private RegistrationWritePipeline pipeline(BulkWriter bulkWriter, Duration writeTimeout) {
+        RegistrationWritePipeline pipeline = new RegistrationWritePipeline(mongoTemplate, bulkWriter, Duration.ZERO,
+                256, 100, Duration.ofSeconds(1), writeTimeout, new SimpleMeterRegistry());
+        pipeline.start();
+        return pipeline;
+    }
+
+    private static Registration registration(String eventId) {
+        Registration registration = new Registration();
+        registration.setCustomerId("customer-" + eventId);
+        registration.setEventId(eventId);
+        registration.setStatus("registered");
+        return registration;
+    }
+}